@@ -0,0 +1,71 @@
+package me.levitate.quill.config;
+
+/**
+ * Versioned reference to the current instance of a config.
+ * <p>
+ * Instances are fully loaded before they are published and are swapped as a whole on reload,
+ * so a reader on any thread sees either the old or the new config, never a partially loaded one.
+ * Reading is a single volatile read without locking. Keep the handle instead of the instance
+ * to always see the latest config.
+ * </p>
+ * <p>
+ * The published instance is a deep copy of the loaded one. Reload diffs and field listeners compare against
+ * the loaded instance, so changes made through the handle never hide or fake a change on reload.
+ * The copy is shared by all readers, treat it as read-only.
+ * </p>
+ *
+ * @param <T> The config type
+ */
+public final class ConfigHandle<T> {
+    private final Class<T> type;
+    private volatile Snapshot<T> snapshot;
+    private T source;
+
+    ConfigHandle(Class<T> type, T source, T published) {
+        this.type = type;
+        this.source = source;
+        this.snapshot = new Snapshot<>(published, 1);
+    }
+
+    /**
+     * @return The current config instance
+     */
+    public T get() {
+        return snapshot.value();
+    }
+
+    /**
+     * Get the current instance together with its version, use this when a value and its version must match
+     * @return The current snapshot
+     */
+    public Snapshot<T> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return The version of the current instance, starts at 1 and increases on every reload
+     */
+    public long getVersion() {
+        return snapshot.version();
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Publish a new instance, only called by the config manager on the thread applying reloads
+     * @param source The loaded instance
+     * @param published The copy handed to readers
+     * @return The previous loaded instance
+     */
+    synchronized T swap(Object source, Object published) {
+        T previous = this.source;
+        this.source = type.cast(source);
+        snapshot = new Snapshot<>(type.cast(published), snapshot.version() + 1);
+        return previous;
+    }
+
+    public record Snapshot<T>(T value, long version) {
+    }
+}
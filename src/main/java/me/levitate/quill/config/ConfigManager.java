@@ -1,6 +1,8 @@
 package me.levitate.quill.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
@@ -10,31 +12,61 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import me.levitate.quill.config.annotation.Config;
 import me.levitate.quill.config.comment.CommentedConfigurationSerializer;
 import me.levitate.quill.config.exception.ConfigurationException;
+import me.levitate.quill.config.reload.ConfigDiff;
 import me.levitate.quill.config.reload.ConfigReloadListener;
+import me.levitate.quill.config.reload.ConfigWatcher;
 import me.levitate.quill.config.serializer.ConfigurationDeserializer;
 import me.levitate.quill.config.serializer.ConfigurationSerializer;
 import me.levitate.quill.injection.annotation.Inject;
 import me.levitate.quill.injection.annotation.Module;
 import me.levitate.quill.injection.annotation.PostConstruct;
+import me.levitate.quill.injection.annotation.PreDestroy;
+import me.levitate.quill.injection.profiler.StartupProfiler;
 import me.levitate.quill.item.ItemSerializer;
 import me.levitate.quill.logger.QuillLogger;
+import me.levitate.quill.utils.common.FileHelper;
+import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
 @Module
 @SuppressWarnings("unused")
 public class ConfigManager {
-    private final Map<Class<?>, CommentedConfigurationSerializer> commentSerializers = new HashMap<>();
     private final Map<Class<?>, List<Consumer<?>>> reloadListeners = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<FieldListener>> fieldListeners = new ConcurrentHashMap<>();
 
-    private Map<Class<?>, Object> configInstances;
+    // Guarded by this, the codecs and the mapper are rebuilt lazily after a serializer or deserializer is registered.
+    private final Map<Class<?>, CommentedConfigurationSerializer> commentSerializers = new HashMap<>();
+    private final Map<Class<?>, ConfigCodec> codecs = new HashMap<>();
     private ObjectMapper mapper;
+    private int mapperVersion;
+
+    // Configs parsed by preload() that nobody requested yet, dropped when the mapper changes.
+    private final Map<Class<?>, ConfigHandle<?>> preloaded = new ConcurrentHashMap<>();
+
+    // Files of loaded configs and the hash of their content as last read or written by us.
+    private final Map<Path, Class<?>> configFiles = new ConcurrentHashMap<>();
+    private final Map<Path, String> contentHashes = new ConcurrentHashMap<>();
+    private volatile ConfigWatcher watcher;
+
+    private Map<Class<?>, ConfigHandle<?>> handles;
     private SimpleModule serializerModule;
 
     @Inject
@@ -43,55 +75,163 @@ public class ConfigManager {
     @Inject
     private Plugin plugin;
 
+    @Inject
+    private StartupProfiler profiler;
+
     @PostConstruct
     private void init() {
-        this.configInstances = new ConcurrentHashMap<>();
-
-        // Configure Jackson
-        YAMLFactory yamlFactory = YAMLFactory.builder()
-                .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
-                .enable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
-                .enable(YAMLGenerator.Feature.LITERAL_BLOCK_STYLE)
-                .build();
-
-        this.mapper = new ObjectMapper(yamlFactory)
-                .enable(SerializationFeature.INDENT_OUTPUT)
-                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
+        this.handles = new ConcurrentHashMap<>();
         this.serializerModule = new SimpleModule();
         registerBukkitSerializers();
-        mapper.registerModule(serializerModule);
     }
 
-    @SuppressWarnings("unchecked")
+    @PreDestroy
+    public void shutdown() {
+        disableHotReload();
+    }
+
     public <T> T getConfig(Class<T> configClass) {
-        return (T) configInstances.computeIfAbsent(configClass, this::loadConfig);
+        return getHandle(configClass).get();
+    }
+
+    /**
+     * Get the handle of a config, loading it if needed. The handle always points to the latest instance.
+     * @param configClass The config class
+     * @return The handle of the config
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ConfigHandle<T> getHandle(Class<T> configClass) {
+        ConfigHandle<?> handle = handles.get(configClass);
+        if (handle == null) {
+            handle = handles.computeIfAbsent(configClass, cls -> {
+                ConfigHandle<?> preloadedHandle = preloaded.remove(cls);
+                return preloadedHandle != null ? preloadedHandle : createHandle(configClass);
+            });
+        }
+        return (ConfigHandle<T>) handle;
+    }
+
+    /**
+     * Parse multiple configs in parallel, e.g. during startup. Configs that are already loaded are skipped.
+     * <p>
+     * Preloading never writes files and never logs. Configs whose file is missing, outdated or fails to parse
+     * are skipped and loaded as usual on their first {@link #getConfig(Class)}. Serializers must be registered
+     * before the configs using them are requested, registering one drops all preloaded configs that were not
+     * requested yet, so they are parsed again with the new serializer.
+     * </p>
+     *
+     * @param configClasses The config classes, annotated with {@link Config}
+     */
+    public void preload(Collection<Class<?>> configClasses) {
+        List<Class<?>> pending = configClasses.stream()
+                .distinct()
+                .filter(configClass -> !handles.containsKey(configClass) && !preloaded.containsKey(configClass))
+                .toList();
+        if (pending.isEmpty()) return;
+
+        int version = getMapperVersion();
+
+        int threads = Math.min(pending.size(), Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Quill-ConfigLoader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            CompletableFuture.allOf(pending.stream()
+                    .map(configClass -> CompletableFuture.runAsync(() -> {
+                        try {
+                            Object instance = loadConfig(configClass, true);
+                            if (instance != null) {
+                                addPreloaded(configClass, createHandle(configClass, instance), version);
+                            }
+                        } catch (ConfigurationException ignored) {
+                            // Loaded again, and logged, on the first getConfig.
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new)
+            ).join();
+        } finally {
+            executor.shutdown();
+        }
     }
 
     public void reloadAll() {
-        Set<Class<?>> configClasses = new HashSet<>(configInstances.keySet());
+        Set<Class<?>> configClasses = new HashSet<>(handles.keySet());
         configClasses.forEach(this::reloadConfig);
-        notifyReloadListeners();
     }
 
     public void reloadConfig(Class<?> configClass) {
-        configInstances.put(configClass, loadConfig(configClass));
-        notifyReloadListeners();
+        applyReload(configClass, loadConfig(configClass));
+    }
+
+    /**
+     * Watch the files of loaded configs and reload them when they change on disk.
+     * Files are parsed off the main thread, only the new instance is swapped in on the main thread.
+     */
+    public void enableHotReload() {
+        enableHotReload(500L);
+    }
+
+    /**
+     * Watch the files of loaded configs and reload them when they change on disk.
+     * @param debounceMillis How long a file has to stay unchanged before it is reloaded
+     */
+    public synchronized void enableHotReload(long debounceMillis) {
+        if (watcher != null) return;
+
+        try {
+            watcher = new ConfigWatcher("Quill-ConfigWatcher-" + plugin.getName(), debounceMillis,
+                    this::handleFileChange, plugin.getLogger());
+        } catch (IOException e) {
+            throw new ConfigurationException("Failed to start config watcher", e);
+        }
+
+        watcher.watch(plugin.getDataFolder().toPath());
+        configFiles.keySet().forEach(file -> watcher.watch(file.getParent()));
     }
 
+    public synchronized void disableHotReload() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Listen for reloads of a config, only called if the reloaded config differs from the previous one
+     * @param configClass The config class
+     * @param listener Called with the new instance
+     */
     public <T> void addReloadListener(Class<T> configClass, Consumer<T> listener) {
-        reloadListeners.computeIfAbsent(configClass, k -> new ArrayList<>())
+        reloadListeners.computeIfAbsent(configClass, k -> new CopyOnWriteArrayList<>())
                 .add(listener);
     }
 
-    public <T> void registerSerializer(Class<T> type, ConfigurationSerializer<T> serializer) {
+    /**
+     * Listen for changes of a single value in a config, e.g. "messages.prefix".
+     * The path uses the property names of the config file, values are read from the fields of the same name.
+     *
+     * @param configClass The config class
+     * @param path Dotted path of the value
+     * @param listener Called with the old and the new value
+     */
+    @SuppressWarnings("unchecked")
+    public <V> void addFieldListener(Class<?> configClass, String path, BiConsumer<V, V> listener) {
+        fieldListeners.computeIfAbsent(configClass, k -> new CopyOnWriteArrayList<>())
+                .add(new FieldListener(path, (BiConsumer<Object, Object>) listener));
+    }
+
+    public synchronized <T> void registerSerializer(Class<T> type, ConfigurationSerializer<T> serializer) {
         serializerModule.addSerializer(type, serializer);
-        mapper.registerModule(serializerModule);
+        invalidateMapper();
     }
 
-    public <T> void registerDeserializer(Class<T> type, ConfigurationDeserializer<T> deserializer) {
+    public synchronized <T> void registerDeserializer(Class<T> type, ConfigurationDeserializer<T> deserializer) {
         serializerModule.addDeserializer(type, deserializer);
-        mapper.registerModule(serializerModule);
+        invalidateMapper();
     }
 
     @SuppressWarnings("unchecked")
@@ -135,91 +275,229 @@ public class ConfigManager {
                         }));
     }
 
+    private synchronized void addPreloaded(Class<?> configClass, ConfigHandle<?> handle, int version) {
+        // A serializer registered while parsing makes the result stale.
+        if (version == mapperVersion && !handles.containsKey(configClass)) {
+            preloaded.putIfAbsent(configClass, handle);
+        }
+    }
+
+    private void applyReload(Class<?> configClass, Object instance) {
+        preloaded.remove(configClass);
+        ConfigHandle<?> handle = handles.get(configClass);
+        Object previous = null;
+        if (handle != null) {
+            previous = handle.swap(instance, copyOf(instance));
+        } else {
+            handles.put(configClass, createHandle(configClass, instance));
+        }
+
+        Set<String> changes = diff(previous, instance);
+        if (!changes.isEmpty()) {
+            notifyListeners(configClass, previous, instance, changes);
+        }
+    }
+
+    private void handleFileChange(Path file) {
+        Class<?> configClass = configFiles.get(file);
+        if (configClass == null || !handles.containsKey(configClass)) return;
+
+        // Ignore the events caused by our own writes and saves that did not change anything.
+        try {
+            if (hash(Files.readAllBytes(file)).equals(contentHashes.get(file))) return;
+        } catch (IOException e) {
+            return;
+        }
+
+        Object instance;
+        try {
+            instance = loadConfig(configClass);
+        } catch (ConfigurationException e) {
+            logger.warn("Failed to hot reload " + file.getFileName() + ", keeping the current configuration");
+            return;
+        }
+
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                applyReload(configClass, instance);
+                logger.info("Reloaded configuration: " + file.getFileName());
+            });
+        }
+    }
+
+    private Set<String> diff(Object previous, Object current) {
+        if (previous == null) return Set.of("");
+
+        try {
+            ObjectMapper treeMapper = getMapper();
+            return ConfigDiff.changedPaths(treeMapper.valueToTree(previous), treeMapper.valueToTree(current));
+        } catch (IllegalArgumentException e) {
+            // Not representable as a tree, treat the whole config as changed.
+            logger.log(Level.WARNING, "Failed to compare configuration " + current.getClass().getSimpleName(), e);
+            return Set.of("");
+        }
+    }
+
     @SuppressWarnings("unchecked")
-    private void notifyReloadListeners() {
-        configInstances.forEach((configClass, instance) -> {
-            List<Consumer<?>> listeners = reloadListeners.get(configClass);
-            if (listeners != null) {
-                listeners.forEach(listener ->
-                        ((Consumer<Object>) listener).accept(instance)
-                );
+    private void notifyListeners(Class<?> configClass, Object previous, Object current, Set<String> changes) {
+        List<Consumer<?>> listeners = reloadListeners.get(configClass);
+        if (listeners != null) {
+            listeners.forEach(listener ->
+                    ((Consumer<Object>) listener).accept(current)
+            );
+        }
+
+        List<FieldListener> fields = fieldListeners.get(configClass);
+        if (fields == null) return;
+
+        for (FieldListener listener : fields) {
+            if (!ConfigDiff.affects(listener.path(), changes)) continue;
+
+            Object oldValue = previous != null ? ConfigDiff.resolve(previous, listener.path()) : null;
+            Object newValue = ConfigDiff.resolve(current, listener.path());
+            if (!Objects.equals(oldValue, newValue)) {
+                listener.listener().accept(oldValue, newValue);
             }
-        });
+        }
+    }
+
+    private <T> ConfigHandle<T> createHandle(Class<T> configClass) {
+        return createHandle(configClass, loadConfig(configClass));
+    }
+
+    private <T> ConfigHandle<T> createHandle(Class<T> configClass, Object instance) {
+        return new ConfigHandle<>(configClass, configClass.cast(instance), configClass.cast(copyOf(instance)));
+    }
+
+    private Object copyOf(Object instance) {
+        try {
+            ObjectMapper treeMapper = getMapper();
+            return treeMapper.treeToValue(treeMapper.valueToTree(instance), instance.getClass());
+        } catch (Exception e) {
+            throw new ConfigurationException("Failed to copy configuration " + instance.getClass().getSimpleName(), e);
+        }
     }
 
     private <T> T loadConfig(Class<T> configClass) {
+        return loadConfig(configClass, false);
+    }
+
+    /**
+     * @param preload Only parse an up-to-date file, returns null instead of writing the file or logging a failure
+     */
+    private <T> T loadConfig(Class<T> configClass, boolean preload) {
         Config configAnnotation = configClass.getAnnotation(Config.class);
         if (configAnnotation == null) {
             throw new ConfigurationException("Class " + configClass.getName() + " is not annotated with @Config");
         }
 
         File configFile = new File(plugin.getDataFolder(), configAnnotation.value());
+        Path configPath = configFile.toPath().toAbsolutePath().normalize();
+        if (configFiles.put(configPath, configClass) == null && watcher != null) {
+            watcher.watch(configPath.getParent());
+        }
 
-        try {
-            ObjectMapper configMapper = getMapperForConfig(configClass);
+        try (StartupProfiler.Span ignored = profiler.span("config", configAnnotation.value())) {
+            ConfigCodec codec = getCodec(configClass);
             T instance = configClass.getDeclaredConstructor().newInstance();
 
             if (!configFile.exists()) {
-                saveDefaultConfig(configFile, instance, configMapper);
+                if (preload) return null;
+                saveDefaultConfig(configFile, instance, codec.writer());
                 return instance;
             }
 
-            T loadedInstance = configMapper.readValue(configFile, configClass);
-            updateMissingValues(loadedInstance, instance);
-            saveConfig(configFile, loadedInstance, configMapper);
+            byte[] content = Files.readAllBytes(configPath);
+            T loadedInstance = codec.reader().readValue(content);
+            boolean filled = updateMissingValues(loadedInstance, instance);
+
+            // Only rewrite the file if defaults were added or the serialized form differs from the file.
+            byte[] serialized = codec.writer().writeValueAsBytes(loadedInstance);
+            String serializedHash = hash(serialized);
+            if (filled || !serializedHash.equals(hash(content))) {
+                if (preload) return null;
+                FileHelper.writeAtomically(configPath, serialized);
+            }
+            contentHashes.put(configPath, serializedHash);
             return loadedInstance;
 
         } catch (Exception e) {
+            if (preload) return null;
             logger.log(Level.SEVERE, "Failed to load configuration: " + configFile.getName(), e);
             throw new ConfigurationException("Failed to load configuration", e);
         }
     }
 
-    private <T> void updateMissingValues(T loadedInstance, T defaultInstance) {
+    private <T> boolean updateMissingValues(T loadedInstance, T defaultInstance) {
         try {
+            boolean filled = false;
             for (Field field : loadedInstance.getClass().getDeclaredFields()) {
                 field.setAccessible(true);
                 Object loadedValue = field.get(loadedInstance);
                 if (loadedValue == null) {
                     Object defaultValue = field.get(defaultInstance);
                     field.set(loadedInstance, defaultValue);
+                    filled |= defaultValue != null;
                 }
             }
+            return filled;
         } catch (Exception e) {
             throw new ConfigurationException("Failed to update missing values", e);
         }
     }
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
-    private void saveDefaultConfig(File file, Object instance, ObjectMapper configMapper) {
+    private void saveDefaultConfig(File file, Object instance, ObjectWriter writer) {
         try {
             if (!file.getParentFile().exists()) {
                 file.getParentFile().mkdirs();
             }
-            saveConfig(file, instance, configMapper);
+            saveConfig(file, instance, writer);
         } catch (Exception e) {
             throw new ConfigurationException("Failed to save default configuration", e);
         }
     }
 
-    private void saveConfig(File file, Object instance, ObjectMapper configMapper) {
+    private void saveConfig(File file, Object instance, ObjectWriter writer) {
         try {
-            configMapper.writeValue(file, instance);
+            byte[] serialized = writer.writeValueAsBytes(instance);
+            Path path = file.toPath().toAbsolutePath().normalize();
+            FileHelper.writeAtomically(path, serialized);
+            contentHashes.put(path, hash(serialized));
         } catch (Exception e) {
             throw new ConfigurationException("Failed to save configuration", e);
         }
     }
 
-    private void configureCommentSerializer(Class<?> configClass) {
-        CommentedConfigurationSerializer serializer = new CommentedConfigurationSerializer(configClass);
-        commentSerializers.put(configClass, serializer);
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 
-        FilterProvider filterProvider = new SimpleFilterProvider()
-                .addFilter("commentFilter", serializer);
-        mapper.setFilterProvider(filterProvider);
+    private synchronized void invalidateMapper() {
+        mapper = null;
+        mapperVersion++;
+        codecs.clear();
+        preloaded.clear();
+    }
+
+    private synchronized int getMapperVersion() {
+        return mapperVersion;
     }
 
-    private ObjectMapper getMapperForConfig(Class<?> configClass) {
+    /**
+     * Get the prebuilt reader and writer of a config class.
+     * They are created once and reused until a serializer or deserializer is registered.
+     */
+    private synchronized ConfigCodec getCodec(Class<?> configClass) {
+        ConfigCodec codec = codecs.get(configClass);
+        if (codec != null) return codec;
+
+        ObjectMapper mapper = getMapper();
+
         CommentedConfigurationSerializer serializer = commentSerializers.computeIfAbsent(
                 configClass,
                 CommentedConfigurationSerializer::new
@@ -228,6 +506,35 @@ public class ConfigManager {
         FilterProvider filterProvider = new SimpleFilterProvider()
                 .addFilter("commentFilter", serializer);
 
-        return mapper.copy().setFilterProvider(filterProvider);
+        codec = new ConfigCodec(mapper.readerFor(configClass), mapper.writer(filterProvider));
+        codecs.put(configClass, codec);
+        return codec;
+    }
+
+    private synchronized ObjectMapper getMapper() {
+        if (mapper == null) {
+            mapper = createMapper();
+        }
+        return mapper;
+    }
+
+    private ObjectMapper createMapper() {
+        YAMLFactory yamlFactory = YAMLFactory.builder()
+                .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+                .enable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                .enable(YAMLGenerator.Feature.LITERAL_BLOCK_STYLE)
+                .build();
+
+        return new ObjectMapper(yamlFactory)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .registerModule(serializerModule)
+                .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    private record ConfigCodec(ObjectReader reader, ObjectWriter writer) {
+    }
+
+    private record FieldListener(String path, BiConsumer<Object, Object> listener) {
     }
-}
\ No newline at end of file
+}
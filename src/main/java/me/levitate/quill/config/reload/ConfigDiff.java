@@ -0,0 +1,107 @@
+package me.levitate.quill.config.reload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Structural diff between two serialized config instances.
+ * Paths are dotted property names, e.g. "messages.prefix". Objects are compared per property,
+ * any other value (including lists) is compared as a whole.
+ */
+public final class ConfigDiff {
+    private ConfigDiff() {
+    }
+
+    /**
+     * Collect the paths of all values that differ between two trees
+     * @param previous The old tree
+     * @param current The new tree
+     * @return The changed paths, an empty path means the whole config changed
+     */
+    public static Set<String> changedPaths(JsonNode previous, JsonNode current) {
+        Set<String> changes = new LinkedHashSet<>();
+        collect(previous, current, "", changes);
+        return changes;
+    }
+
+    /**
+     * Check if a subscribed path is affected by any of the changes
+     * @param path The subscribed path
+     * @param changes The changed paths
+     * @return true if the value at the path or one of its parents or children changed
+     */
+    public static boolean affects(String path, Set<String> changes) {
+        for (String change : changes) {
+            if (change.isEmpty() || change.equals(path)
+                    || change.startsWith(path + ".") || path.startsWith(change + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolve a dotted path on a config instance, following fields and map keys
+     * @param root The config instance
+     * @param path The path
+     * @return The value, or null if a part of the path does not exist
+     */
+    public static Object resolve(Object root, String path) {
+        Object current = root;
+        for (String segment : path.split("\\.")) {
+            if (current == null) return null;
+
+            if (current instanceof Map<?, ?> map) {
+                current = map.get(segment);
+                continue;
+            }
+
+            Field field = findField(current.getClass(), segment);
+            if (field == null) return null;
+
+            try {
+                field.setAccessible(true);
+                current = field.get(current);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static void collect(JsonNode previous, JsonNode current, String path, Set<String> changes) {
+        if (previous == null || current == null) {
+            if (previous != current) changes.add(path);
+            return;
+        }
+        if (previous.equals(current)) return;
+
+        if (!previous.isObject() || !current.isObject()) {
+            changes.add(path);
+            return;
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        previous.fieldNames().forEachRemaining(names::add);
+        current.fieldNames().forEachRemaining(names::add);
+
+        for (String name : names) {
+            String child = path.isEmpty() ? name : path + "." + name;
+            collect(previous.get(name), current.get(name), child, changes);
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        return null;
+    }
+}
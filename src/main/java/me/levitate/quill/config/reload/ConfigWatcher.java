@@ -0,0 +1,131 @@
+package me.levitate.quill.config.reload;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches directories for changed files on a daemon thread.
+ * Changes are debounced per file, so an editor writing a file in several steps results in a single callback.
+ * The callback runs on the watcher thread.
+ */
+public class ConfigWatcher {
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Set<Path> watched = ConcurrentHashMap.newKeySet();
+    private final Map<Path, Long> pending = new HashMap<>();
+    private final long debounceNanos;
+    private final Consumer<Path> listener;
+    private final Logger logger;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public ConfigWatcher(String name, long debounceMillis, Consumer<Path> listener, Logger logger) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.listener = listener;
+        this.logger = logger;
+
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Start watching a directory, does nothing if it is already watched
+     * @param directory The directory
+     */
+    public void watch(Path directory) {
+        Path normalized = directory.toAbsolutePath().normalize();
+        if (!watched.add(normalized)) return;
+
+        try {
+            WatchKey key = normalized.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, normalized);
+        } catch (IOException e) {
+            watched.remove(normalized);
+            logger.log(Level.WARNING, "Failed to watch directory: " + normalized, e);
+        }
+    }
+
+    /**
+     * Stop the watcher thread
+     */
+    public void close() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                WatchKey key = pending.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(nextDeadline() - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                if (key != null) {
+                    collect(key);
+                }
+                fireDue();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // Closed, exit quietly.
+        }
+    }
+
+    private void collect(WatchKey key) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null || event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+
+            Path file = directory.resolve((Path) event.context());
+            pending.put(file, System.nanoTime() + debounceNanos);
+        }
+
+        if (!key.reset()) {
+            Path removed = directories.remove(key);
+            if (removed != null) {
+                watched.remove(removed);
+            }
+        }
+    }
+
+    private long nextDeadline() {
+        long next = Long.MAX_VALUE;
+        for (long deadline : pending.values()) {
+            next = Math.min(next, deadline);
+        }
+        return next;
+    }
+
+    private void fireDue() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (entry.getValue() - now > 0) continue;
+
+            iterator.remove();
+            try {
+                listener.accept(entry.getKey());
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Error while handling change of " + entry.getKey(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package me.levitate.quill.event;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Dispatches events to the handlers registered through {@link EventManager}.
+ * <p>
+ * Only one executor is registered with Bukkit per event class and priority, it calls the handlers from a
+ * copy-on-write array. The type check happens once per event instead of once per handler, and adding or
+ * removing handlers never blocks dispatching. The Bukkit registration is removed with the last handler.
+ * </p>
+ */
+final class EventBus {
+    private final Plugin plugin;
+    private final EventTimings timings;
+    private final Map<ChannelKey, Channel<?>> channels = new ConcurrentHashMap<>();
+
+    EventBus(Plugin plugin, EventTimings timings) {
+        this.plugin = plugin;
+        this.timings = timings;
+    }
+
+    <T extends Event> EventSubscription subscribe(Class<T> eventClass, EventPriority priority, boolean ignoreCancelled,
+                                                  Predicate<T> filter, Consumer<T> handler, String name) {
+        String handlerName = name != null ? name : defaultName(eventClass, priority, handler);
+        Handler<T> entry = new Handler<>(handler, filter, ignoreCancelled, handlerName);
+
+        // Adding happens inside compute, so it cannot race with the removal of an empty channel.
+        channels.compute(new ChannelKey(eventClass, priority), (key, existing) -> {
+            @SuppressWarnings("unchecked")
+            Channel<T> channel = existing != null ? (Channel<T>) existing : new Channel<>(eventClass, priority);
+            channel.add(entry);
+            return channel;
+        });
+
+        return new Subscription<>(new ChannelKey(eventClass, priority), entry);
+    }
+
+    /**
+     * Unregister every handler and every Bukkit registration, outstanding subscriptions become inactive
+     */
+    void close() {
+        channels.values().forEach(channel -> {
+            HandlerList.unregisterAll(channel.listener);
+            for (Handler<?> handler : channel.handlers) {
+                handler.release(timings);
+            }
+        });
+        channels.clear();
+    }
+
+    /**
+     * Name of an unnamed handler, stable between restarts, e.g. "MyListener PlayerJoinEvent/NORMAL"
+     */
+    private static String defaultName(Class<?> eventClass, EventPriority priority, Object handler) {
+        // Lambdas are named after the class declaring them, e.g. "com.example.MyListener$$Lambda/0x..."
+        String className = handler.getClass().getName();
+        int lambda = className.indexOf("$$Lambda");
+        if (lambda >= 0) {
+            className = className.substring(0, lambda);
+        }
+        return className.substring(className.lastIndexOf('.') + 1) + " " + eventClass.getSimpleName() + "/" + priority;
+    }
+
+    private record ChannelKey(Class<? extends Event> eventClass, EventPriority priority) {
+    }
+
+    private static final class Handler<T> {
+        private final Consumer<T> consumer;
+        private final Predicate<T> filter;
+        private final boolean ignoreCancelled;
+        private final String name;
+        // Created on the first measured call, so handlers only get a timings entry while timings are enabled.
+        private volatile EventTimings.HandlerTimings timings;
+        private volatile boolean released;
+
+        private Handler(Consumer<T> consumer, Predicate<T> filter, boolean ignoreCancelled, String name) {
+            this.consumer = consumer;
+            this.filter = filter;
+            this.ignoreCancelled = ignoreCancelled;
+            this.name = name;
+        }
+
+        /**
+         * @return The timings entry of the handler, or null once it is unregistered
+         */
+        private EventTimings.HandlerTimings timings(EventTimings registry) {
+            EventTimings.HandlerTimings current = timings;
+            if (current != null) return current;
+
+            synchronized (this) {
+                if (timings == null && !released) {
+                    timings = registry.acquire(name);
+                }
+                return timings;
+            }
+        }
+
+        /**
+         * @return false if the handler was already released
+         */
+        private synchronized boolean release(EventTimings registry) {
+            if (released) return false;
+
+            released = true;
+            if (timings != null) {
+                registry.release(timings);
+                timings = null;
+            }
+            return true;
+        }
+    }
+
+    private final class Channel<T extends Event> {
+        private final Class<T> eventClass;
+        private final Listener listener = new Listener() {
+        };
+        private volatile Handler<T>[] handlers = newArray(0);
+
+        private Channel(Class<T> eventClass, EventPriority priority) {
+            this.eventClass = eventClass;
+
+            // ignoreCancelled is false here, it is checked per handler.
+            plugin.getServer().getPluginManager().registerEvent(eventClass, listener, priority,
+                    (l, event) -> dispatch(event), plugin, false);
+        }
+
+        private void add(Handler<T> handler) {
+            Handler<T>[] current = handlers;
+            Handler<T>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = handler;
+            handlers = updated;
+        }
+
+        /**
+         * @return true if the channel has no handlers left
+         */
+        private boolean remove(Handler<?> handler) {
+            Handler<T>[] current = handlers;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] != handler) continue;
+
+                Handler<T>[] updated = newArray(current.length - 1);
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                handlers = updated;
+                break;
+            }
+            return handlers.length == 0;
+        }
+
+        private void dispatch(Event event) {
+            // Bukkit also passes subclasses sharing the handler list, e.g. every EntityDamageEvent.
+            if (!eventClass.isInstance(event)) return;
+
+            T typed = eventClass.cast(event);
+            boolean cancellable = event instanceof Cancellable;
+            boolean timed = timings.isEnabled();
+
+            for (Handler<T> handler : handlers) {
+                if (handler.ignoreCancelled && cancellable && ((Cancellable) event).isCancelled()) continue;
+
+                if (timed) {
+                    long start = System.nanoTime();
+                    invoke(handler, typed);
+                    long elapsed = System.nanoTime() - start;
+
+                    EventTimings.HandlerTimings handlerTimings = handler.timings(timings);
+                    if (handlerTimings != null) {
+                        timings.record(handlerTimings, elapsed);
+                    }
+                } else {
+                    invoke(handler, typed);
+                }
+            }
+        }
+
+        private void invoke(Handler<T> handler, T event) {
+            try {
+                if (handler.filter == null || handler.filter.test(event)) {
+                    handler.consumer.accept(event);
+                }
+            } catch (Throwable t) {
+                // Keep one failing handler from skipping the others.
+                plugin.getLogger().log(Level.SEVERE, "Could not pass " + eventClass.getSimpleName() +
+                        " to handler " + handler.name, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Handler<T>[] newArray(int length) {
+            return (Handler<T>[]) new Handler[length];
+        }
+    }
+
+    private final class Subscription<T> implements EventSubscription {
+        private final ChannelKey key;
+        private final Handler<T> handler;
+
+        private Subscription(ChannelKey key, Handler<T> handler) {
+            this.key = key;
+            this.handler = handler;
+        }
+
+        @Override
+        public void unregister() {
+            // Released handlers were already removed, either by an earlier call or by close().
+            if (!handler.release(timings)) return;
+
+            channels.computeIfPresent(key, (k, channel) -> {
+                if (!channel.remove(handler)) return channel;
+
+                HandlerList.unregisterAll(channel.listener);
+                return null;
+            });
+        }
+
+        @Override
+        public boolean isActive() {
+            return !handler.released;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package me.levitate.quill.event;
 
+import lombok.Getter;
 import me.levitate.quill.injection.annotation.Inject;
 import me.levitate.quill.injection.annotation.Module;
+import me.levitate.quill.injection.annotation.PostConstruct;
+import me.levitate.quill.injection.annotation.PreDestroy;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
 import java.util.function.Consumer;
@@ -16,6 +18,28 @@ public class EventManager {
     @Inject
     private Plugin hostPlugin;
 
+    private EventBus bus;
+
+    /**
+     * Timings of the handlers registered through this manager, disabled until enabled
+     */
+    @Getter
+    private EventTimings timings;
+
+    @PostConstruct
+    private void init() {
+        this.timings = new EventTimings(hostPlugin);
+        this.bus = new EventBus(hostPlugin, timings);
+    }
+
+    /**
+     * Unregister every handler registered through this manager
+     */
+    @PreDestroy
+    public void shutdown() {
+        bus.close();
+    }
+
     /**
      * Utility method to filter cancelled events
      */
@@ -27,14 +51,21 @@ public class EventManager {
      * Start building an event listener
      */
     public <T extends Event> EventBuilder<T> listen(Class<T> eventClass) {
-        return new EventBuilder<>(hostPlugin, eventClass);
+        return new EventBuilder<>(bus, eventClass);
     }
 
     /**
      * Quick register with default priority
      */
     public <T extends Event> void listen(Class<T> eventClass, Consumer<T> handler) {
-        new EventBuilder<>(hostPlugin, eventClass).handle(handler);
+        new EventBuilder<>(bus, eventClass).handle(handler);
+    }
+
+    /**
+     * Quick register with default priority, keeping the subscription to unregister the handler later
+     */
+    public <T extends Event> EventSubscription subscribe(Class<T> eventClass, Consumer<T> handler) {
+        return new EventBuilder<>(bus, eventClass).subscribe(handler);
     }
 
     /**
@@ -58,14 +89,15 @@ public class EventManager {
     }
 
     public static class EventBuilder<T extends Event> {
-        private final Plugin plugin;
+        private final EventBus bus;
         private final Class<T> eventClass;
         private EventPriority priority = EventPriority.NORMAL;
         private boolean ignoreCancelled = false;
         private Predicate<T> filter;
+        private String name;
 
-        private EventBuilder(Plugin plugin, Class<T> eventClass) {
-            this.plugin = plugin;
+        private EventBuilder(EventBus bus, Class<T> eventClass) {
+            this.bus = bus;
             this.eventClass = eventClass;
         }
 
@@ -98,6 +130,14 @@ public class EventManager {
             return priority(EventPriority.LOWEST);
         }
 
+        /**
+         * Name the handler, used to identify it in {@link EventTimings}
+         */
+        public EventBuilder<T> name(String name) {
+            this.name = name;
+            return this;
+        }
+
         /**
          * Set whether to ignore cancelled events
          */
@@ -122,27 +162,15 @@ public class EventManager {
          * Register the event handler
          */
         public void handle(Consumer<T> handler) {
-            Listener listener = new Listener() {
-            };
+            subscribe(handler);
+        }
 
-            Consumer<T> wrappedHandler = filter != null
-                    ? event -> {
-                if (filter.test(event)) handler.accept(event);
-            }
-                    : handler;
-
-            plugin.getServer().getPluginManager().registerEvent(
-                    eventClass,
-                    listener,
-                    priority,
-                    (l, event) -> {
-                        if (eventClass.isInstance(event)) {
-                            wrappedHandler.accept(eventClass.cast(event));
-                        }
-                    },
-                    plugin,
-                    ignoreCancelled
-            );
+        /**
+         * Register the event handler
+         * @return The subscription, used to unregister the handler
+         */
+        public EventSubscription subscribe(Consumer<T> handler) {
+            return bus.subscribe(eventClass, priority, ignoreCancelled, filter, handler, name);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package me.levitate.quill.event;
+
+/**
+ * Handle of a handler registered through {@link EventManager}, used to unregister it again.
+ */
+public interface EventSubscription {
+    /**
+     * Stop calling the handler, does nothing if it is already unregistered
+     */
+    void unregister();
+
+    /**
+     * @return true until the handler is unregistered
+     */
+    boolean isActive();
+}
@@ -0,0 +1,219 @@
+package me.levitate.quill.event;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional timings of the handlers registered through {@link EventManager}, aggregated per handler name.
+ * <p>
+ * Disabled by default, while disabled handlers are called without measuring. Handlers are named with
+ * {@link EventManager.EventBuilder#name(String)}, unnamed handlers after the class declaring them, the event
+ * and the priority. Handlers sharing a name are aggregated together. A handler gets its entry on its first
+ * measured call, the entry is removed once every handler using it is unregistered.
+ * Calls on the server thread that take longer than the budget are counted as slow and logged,
+ * at most once per handler every 30 seconds.
+ * </p>
+ */
+public class EventTimings {
+    private static final long[] BUCKET_LIMITS_MICROS = {50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 50_000};
+
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final Plugin plugin;
+    private final Map<String, HandlerTimings> handlers = new ConcurrentHashMap<>();
+
+    @Getter
+    private volatile boolean enabled;
+    private volatile long budgetNanos = TimeUnit.MICROSECONDS.toNanos(500);
+
+    EventTimings(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Set how long a single call on the server thread may take before it counts as slow, 0.5ms by default
+     */
+    public void setBudget(Duration budget) {
+        this.budgetNanos = budget.toNanos();
+    }
+
+    public Duration getBudget() {
+        return Duration.ofNanos(budgetNanos);
+    }
+
+    /**
+     * @return Copy of the upper bounds of the histogram buckets in microseconds, the last bucket holds everything slower
+     */
+    public static long[] getBucketLimitsMicros() {
+        return BUCKET_LIMITS_MICROS.clone();
+    }
+
+    /**
+     * @return The timings of all handlers, slowest in total first
+     */
+    public List<HandlerTimings> getHandlers() {
+        return handlers.values().stream()
+                .sorted(Comparator.comparingLong(HandlerTimings::getTotalNanos).reversed())
+                .toList();
+    }
+
+    /**
+     * @return The handlers that had at least one slow call, most slow calls first
+     */
+    public List<HandlerTimings> getSlowHandlers() {
+        return handlers.values().stream()
+                .filter(timings -> timings.getSlowCalls() > 0)
+                .sorted(Comparator.comparingLong(HandlerTimings::getSlowCalls).reversed())
+                .toList();
+    }
+
+    /**
+     * Clear all measured values, handlers stay known
+     */
+    public void reset() {
+        handlers.values().forEach(HandlerTimings::reset);
+    }
+
+    HandlerTimings acquire(String name) {
+        return handlers.compute(name, (key, existing) -> {
+            HandlerTimings timings = existing != null ? existing : new HandlerTimings(key);
+            timings.references++;
+            return timings;
+        });
+    }
+
+    void release(HandlerTimings timings) {
+        handlers.computeIfPresent(timings.name, (key, existing) -> {
+            if (existing != timings) return existing;
+            return --existing.references > 0 ? existing : null;
+        });
+    }
+
+    void record(HandlerTimings timings, long nanos) {
+        timings.record(nanos);
+
+        if (nanos > budgetNanos && Bukkit.isPrimaryThread()) {
+            timings.slowCalls.increment();
+            if (timings.shouldWarn()) {
+                plugin.getLogger().warning(String.format("Event handler %s took %.2f ms, the budget is %.2f ms",
+                        timings.name, nanos / 1_000_000.0, budgetNanos / 1_000_000.0));
+            }
+        }
+    }
+
+    /**
+     * Measured values of a single handler name
+     */
+    public static final class HandlerTimings {
+        @Getter
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_LIMITS_MICROS.length + 1);
+        private final AtomicLong lastWarning = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+        // Handlers using this entry, only changed while computing the entry in the map.
+        private int references;
+
+        private HandlerTimings(String name) {
+            this.name = name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getSlowCalls() {
+            return slowCalls.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public double getAverageMillis() {
+            long count = getCalls();
+            return count == 0 ? 0 : getTotalNanos() / (double) count / 1_000_000.0;
+        }
+
+        /**
+         * @return Call counts per bucket of {@link EventTimings#getBucketLimitsMicros()}, with one extra bucket for slower calls
+         */
+        public long[] getHistogram() {
+            long[] copy = new long[histogram.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = histogram.get(i);
+            }
+            return copy;
+        }
+
+        /**
+         * Estimate a percentile from the histogram
+         * @param percentile The percentile, e.g. 0.99
+         * @return The upper bound of the bucket containing the percentile in microseconds, or -1 if it is the last bucket
+         */
+        public long getPercentileMicros(double percentile) {
+            long[] buckets = getHistogram();
+            long count = 0;
+            for (long bucket : buckets) count += bucket;
+            if (count == 0) return 0;
+
+            long target = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_LIMITS_MICROS.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) return BUCKET_LIMITS_MICROS[i];
+            }
+            return -1;
+        }
+
+        private void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS_MICROS.length && micros >= BUCKET_LIMITS_MICROS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        private boolean shouldWarn() {
+            long now = System.nanoTime();
+            long last = lastWarning.get();
+            return now - last >= WARN_INTERVAL_NANOS && lastWarning.compareAndSet(last, now);
+        }
+
+        private void reset() {
+            calls.reset();
+            totalNanos.reset();
+            slowCalls.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package me.levitate.quill.event;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.*;
+import me.levitate.quill.manager.CommandManager;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+/**
+ * Shows the {@link EventTimings} of a plugin in game.
+ * Not registered automatically, use {@link #register(CommandManager, EventManager, String, String)}.
+ */
+@CommandAlias("%eventtimings")
+@CommandPermission("%eventtimings_permission")
+public class EventTimingsCommand extends BaseCommand {
+    private static final int LIMIT = 10;
+
+    private final EventTimings timings;
+
+    public EventTimingsCommand(EventTimings timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * Register the command
+     * @param commandManager The command manager of the plugin
+     * @param eventManager The event manager whose handlers are shown
+     * @param alias The command name, e.g. "myplugin-timings"
+     * @param permission The permission required to use the command
+     */
+    public static void register(CommandManager commandManager, EventManager eventManager, String alias, String permission) {
+        commandManager.getManager().getCommandReplacements().addReplacement("eventtimings", alias);
+        commandManager.getManager().getCommandReplacements().addReplacement("eventtimings_permission", permission);
+        commandManager.registerCommand(new EventTimingsCommand(eventManager.getTimings()));
+    }
+
+    @Default
+    @Description("Show the slowest event handlers in total")
+    public void onList(CommandSender sender) {
+        send(sender, "Event handlers by total time", timings.getHandlers());
+    }
+
+    @Subcommand("slow")
+    @Description("Show the event handlers that exceeded the budget")
+    public void onSlow(CommandSender sender) {
+        send(sender, "Event handlers over " + formatMillis(timings.getBudget().toNanos()) + " ms", timings.getSlowHandlers());
+    }
+
+    @Subcommand("on")
+    @Description("Start measuring event handlers")
+    public void onEnable(CommandSender sender) {
+        timings.setEnabled(true);
+        sender.sendMessage(Component.text("Event timings enabled.", NamedTextColor.GREEN));
+    }
+
+    @Subcommand("off")
+    @Description("Stop measuring event handlers")
+    public void onDisable(CommandSender sender) {
+        timings.setEnabled(false);
+        sender.sendMessage(Component.text("Event timings disabled.", NamedTextColor.YELLOW));
+    }
+
+    @Subcommand("reset")
+    @Description("Clear the measured event timings")
+    public void onReset(CommandSender sender) {
+        timings.reset();
+        sender.sendMessage(Component.text("Event timings reset.", NamedTextColor.GREEN));
+    }
+
+    private void send(CommandSender sender, String title, List<EventTimings.HandlerTimings> handlers) {
+        if (!timings.isEnabled()) {
+            sender.sendMessage(Component.text("Event timings are disabled, enable them with /" + getExecCommandLabel() + " on",
+                    NamedTextColor.YELLOW));
+        }
+
+        sender.sendMessage(Component.text(title + ":", NamedTextColor.GOLD));
+        if (handlers.isEmpty()) {
+            sender.sendMessage(Component.text("  Nothing measured yet.", NamedTextColor.GRAY));
+            return;
+        }
+
+        for (EventTimings.HandlerTimings handler : handlers.subList(0, Math.min(LIMIT, handlers.size()))) {
+            long p99 = handler.getPercentileMicros(0.99);
+            sender.sendMessage(Component.text()
+                    .append(Component.text("  " + handler.getName(), NamedTextColor.WHITE))
+                    .append(Component.text(String.format(" total %s ms, avg %.3f ms, max %s ms, p99 %s, calls %d, slow %d",
+                            formatMillis(handler.getTotalNanos()),
+                            handler.getAverageMillis(),
+                            formatMillis(handler.getMaxNanos()),
+                            p99 < 0 ? "> 50 ms" : "< " + p99 + " µs",
+                            handler.getCalls(),
+                            handler.getSlowCalls()), NamedTextColor.GRAY))
+                    .build());
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,17 @@
+package me.levitate.quill.injection;
+
+/**
+ * Injectable reference to a module that is only created when it is first requested.
+ * Inject a {@code Provider<SomeModule>} instead of the module itself to defer creating
+ * {@link me.levitate.quill.injection.annotation.Module#lazy() lazy} modules until they are actually used.
+ *
+ * @param <T> The module type
+ */
+@FunctionalInterface
+public interface Provider<T> {
+    /**
+     * Get the module, creating and initializing it on the first call. Safe to call from any thread.
+     * @return The module instance
+     */
+    T get();
+}
@@ -2,21 +2,35 @@ package me.levitate.quill.injection;
 
 import co.aikar.commands.BaseCommand;
 import lombok.Getter;
+import me.levitate.quill.config.ConfigManager;
+import me.levitate.quill.config.annotation.Config;
 import me.levitate.quill.injection.annotation.Module;
 import me.levitate.quill.injection.container.DependencyContainer;
+import me.levitate.quill.injection.container.ModuleIndex;
 import me.levitate.quill.injection.exception.DependencyException;
+import me.levitate.quill.injection.profiler.StartupProfiler;
 import me.levitate.quill.logger.QuillLogger;
 import me.levitate.quill.manager.CommandManager;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 @Module
 public abstract class QuillPlugin extends JavaPlugin {
@@ -53,16 +67,34 @@ public abstract class QuillPlugin extends JavaPlugin {
             // Store the logger
             logger = container.getModule(QuillLogger.class);
 
+            StartupProfiler profiler = container.getProfiler();
+
             // Then discover and register other modules
-            registerModules();
+            registerModules(profiler);
 
             // Register all the commands, this is done after to ensure all the modules have loaded.
-            registerCommands(container.getModule(CommandManager.class));
+            try (StartupProfiler.Span ignored = profiler.span("enable", "register commands")) {
+                registerCommands(container.getModule(CommandManager.class));
+            }
+
+            // Wait for modules that initialize asynchronously before handing over to the plugin.
+            try (StartupProfiler.Span ignored = profiler.span("enable", "await modules")) {
+                awaitModules();
+            }
+
+            try (StartupProfiler.Span ignored = profiler.span("enable", "onPluginEnable")) {
+                onPluginEnable();
+            }
 
-            onPluginEnable();
+            reportStartup(profiler);
         } catch (Exception e) {
             getLogger().log(Level.SEVERE, "Failed to initialize plugin: " + e.getMessage(), e);
             getServer().getPluginManager().disablePlugin(this);
+        } finally {
+            // Also stop when enabling failed, so spans opened later are not recorded.
+            if (container != null) {
+                container.getProfiler().stop();
+            }
         }
     }
 
@@ -91,25 +123,69 @@ public abstract class QuillPlugin extends JavaPlugin {
         });
     }
 
-    private void registerModules() {
+    private void awaitModules() throws InterruptedException {
+        Duration timeout = getStartupTimeout();
         try {
-            List<Class<?>> moduleClasses = findModules();
+            container.whenReady().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DependencyException("Modules did not finish initializing within " + timeout.toSeconds() + "s: " +
+                    container.getPendingModules().stream().map(Class::getSimpleName).collect(Collectors.joining(", ")));
+        } catch (ExecutionException e) {
+            throw new DependencyException("Failed to initialize modules", e.getCause());
+        }
+    }
 
-            for (Class<?> moduleClass : moduleClasses) {
-                try {
-                    container.registerModule(moduleClass);
-                    logger.info("Registered module: " + moduleClass.getSimpleName());
-                } catch (DependencyException e) {
-                    getLogger().log(Level.SEVERE, "Failed to register module " + moduleClass.getName() + ": " + e.getMessage(), e);
-                }
+    private void reportStartup(StartupProfiler profiler) {
+        if (!getDebug()) return;
+
+        logger.info("Startup timings:");
+        profiler.printTable(logger::info);
+
+        File traceFile = new File(getDataFolder(), "startup-trace.json");
+        try {
+            profiler.exportChromeTrace(traceFile.toPath());
+            logger.info("Exported startup trace to " + traceFile.getPath() + ", open it in chrome://tracing or Perfetto");
+        } catch (Exception e) {
+            logger.warn("Failed to export startup trace: " + e.getMessage());
+        }
+    }
+
+    private void registerModules(StartupProfiler profiler) {
+        try {
+            ScanResult scanResult;
+            try (StartupProfiler.Span ignored = profiler.span("enable", "scan modules")) {
+                scanResult = findModules();
+            }
+
+            // Parse all config files in parallel before modules start requesting them one by one.
+            // Configs that need custom serializers are parsed again once a module registers them.
+            try (StartupProfiler.Span ignored = profiler.span("enable", "preload configs")) {
+                container.getModule(ConfigManager.class).preload(scanResult.configs());
+            }
+
+            // Parallel modules are initialized next to their layer, failures are logged by the container.
+            List<Class<?>> registered;
+            try (StartupProfiler.Span ignored = profiler.span("enable", "register modules")) {
+                registered = container.registerModules(scanResult.modules(), scanResult.dependencies());
+            }
+
+            for (Class<?> moduleClass : registered) {
+                logger.info("Registered module: " + moduleClass.getSimpleName());
             }
         } catch (Exception e) {
             throw new DependencyException("Failed to register modules", e);
         }
     }
 
-    private List<Class<?>> findModules() throws Exception {
+    private ScanResult findModules() throws Exception {
+        // Use the index generated at compile time if there is one, it avoids opening the JAR and loading every class.
+        Optional<ModuleIndex> index = ModuleIndex.read(getClassLoader());
+        if (index.isPresent()) {
+            return loadIndexedModules(index.get());
+        }
+
         List<Class<?>> modules = new ArrayList<>();
+        List<Class<?>> configs = new ArrayList<>();
         String packageName = getClass().getPackage().getName();
 
         // Get the plugin's JAR file
@@ -131,6 +207,8 @@ public abstract class QuillPlugin extends JavaPlugin {
                         Class<?> clazz = Class.forName(className, false, getClassLoader());
                         if (clazz.isAnnotationPresent(Module.class)) {
                             modules.add(clazz);
+                        } else if (clazz.isAnnotationPresent(Config.class)) {
+                            configs.add(clazz);
                         }
                     } catch (Throwable t) {
                         getLogger().warning("Failed to load class " + className + ": " + t.getMessage());
@@ -139,7 +217,42 @@ public abstract class QuillPlugin extends JavaPlugin {
             }
         }
 
-        return modules;
+        return new ScanResult(modules, configs, Map.of());
+    }
+
+    private ScanResult loadIndexedModules(ModuleIndex index) {
+        String packageName = getClass().getPackage().getName();
+        List<Class<?>> modules = new ArrayList<>();
+        List<Class<?>> configs = new ArrayList<>();
+        Map<Class<?>, Set<Class<?>>> dependencies = new HashMap<>();
+
+        index.getModules().forEach((className, dependencyNames) -> {
+            int loaded = modules.size();
+            loadIndexedClass(className, packageName, modules);
+            if (modules.size() == loaded) return;
+
+            // Without all edges the container falls back to inspecting the module itself.
+            try {
+                Set<Class<?>> edges = new LinkedHashSet<>();
+                for (String dependencyName : dependencyNames) {
+                    edges.add(Class.forName(dependencyName, false, getClassLoader()));
+                }
+                dependencies.put(modules.get(loaded), edges);
+            } catch (Throwable ignored) {
+            }
+        });
+        index.getConfigs().forEach(className -> loadIndexedClass(className, packageName, configs));
+        return new ScanResult(modules, configs, dependencies);
+    }
+
+    private void loadIndexedClass(String className, String packageName, List<Class<?>> classes) {
+        if (!className.startsWith(packageName)) return;
+
+        try {
+            classes.add(Class.forName(className, false, getClassLoader()));
+        } catch (Throwable t) {
+            getLogger().warning("Failed to load class " + className + ": " + t.getMessage());
+        }
     }
 
     // Optional methods for plugins to override
@@ -159,4 +272,16 @@ public abstract class QuillPlugin extends JavaPlugin {
     protected boolean getDebug() {
         return false;
     }
+
+    /**
+     * How long enabling waits for modules with an asynchronous {@link me.levitate.quill.injection.annotation.PostConstruct}.
+     * The plugin is disabled if they are not done in time.
+     * @return The timeout, 30 seconds by default
+     */
+    protected Duration getStartupTimeout() {
+        return Duration.ofSeconds(30);
+    }
+
+    private record ScanResult(List<Class<?>> modules, List<Class<?>> configs, Map<Class<?>, Set<Class<?>>> dependencies) {
+    }
 }
\ No newline at end of file
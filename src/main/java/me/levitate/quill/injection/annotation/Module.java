@@ -9,4 +9,20 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface Module {
     String value() default "";
+
+    /**
+     * Lazy modules are not created on enable, but on their first use through
+     * {@link me.levitate.quill.injection.Provider} or the container. Modules injecting a lazy module
+     * directly still create it right away. Lazy command modules are not registered on enable.
+     */
+    boolean lazy() default false;
+
+    /**
+     * Parallel modules are initialized on worker threads, next to other modules that do not depend on each other.
+     * Only use it for modules whose {@link PostConstruct} methods are thread-safe and do not use the Bukkit API,
+     * all other modules are initialized on the thread enabling the plugin.
+     * {@link PreDestroy} methods of every module run on a worker thread while the disabling thread waits for them,
+     * parallel modules are only shut down next to each other instead of one at a time.
+     */
+    boolean parallel() default false;
 }
\ No newline at end of file
@@ -5,6 +5,15 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Called once all dependencies of a module are injected.
+ * <p>
+ * The method may return a {@link java.util.concurrent.CompletableFuture} to finish initializing asynchronously,
+ * e.g. to load data or open connections. The plugin is only enabled once all of them completed, see
+ * {@link me.levitate.quill.injection.container.DependencyContainer#whenReady(Class)}.
+ * These futures must not wait for the server thread, it is blocked until they complete.
+ * </p>
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface PostConstruct {
@@ -0,0 +1,22 @@
+package me.levitate.quill.injection.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets how many instances of a module exist.
+ * <p>
+ * Player scoped modules get one instance per online player. Singletons are injected once when the instance
+ * is created, fields of type {@link org.bukkit.entity.Player} or {@link java.util.UUID} annotated with {@link Inject}
+ * receive the player on every join. {@link PostConstruct} runs on join and {@link PreDestroy} on quit.
+ * Instances are pooled and reused for later players, so {@link PreDestroy} has to reset per-player state.
+ * Access them with {@link me.levitate.quill.injection.container.DependencyContainer#getScoped(Class, java.util.UUID)}.
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scope {
+    ScopeType value() default ScopeType.SINGLETON;
+}
@@ -0,0 +1,13 @@
+package me.levitate.quill.injection.annotation;
+
+public enum ScopeType {
+    /**
+     * One instance for the whole plugin, the default for modules
+     */
+    SINGLETON,
+
+    /**
+     * One instance per online player, created on join and released on quit
+     */
+    PLAYER
+}
@@ -1,49 +1,77 @@
 package me.levitate.quill.injection.container;
 
 import lombok.Getter;
+import lombok.Setter;
 import me.levitate.quill.cache.CacheManager;
 import me.levitate.quill.config.ConfigManager;
 import me.levitate.quill.event.EventManager;
 import me.levitate.quill.hook.HookManager;
-import me.levitate.quill.injection.annotation.Inject;
+import me.levitate.quill.injection.Provider;
 import me.levitate.quill.injection.annotation.Module;
 import me.levitate.quill.injection.annotation.PostConstruct;
 import me.levitate.quill.injection.annotation.PreDestroy;
+import me.levitate.quill.injection.annotation.Scope;
+import me.levitate.quill.injection.annotation.ScopeType;
 import me.levitate.quill.injection.exception.DependencyException;
+import me.levitate.quill.injection.profiler.StartupProfiler;
 import me.levitate.quill.logger.QuillLogger;
 import me.levitate.quill.manager.CommandManager;
 import me.levitate.quill.utils.common.TaskScheduler;
 import org.bukkit.plugin.Plugin;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DependencyContainer {
     @Getter
     private final Map<Class<?>, Object> modules = new ConcurrentHashMap<>();
-    private final Map<Class<?>, List<Method>> postConstructMethods = new ConcurrentHashMap<>();
-    private final Map<Class<?>, List<Method>> preDestroyMethods = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> registrationLocks = new ConcurrentHashMap<>();
+    // Modules whose PostConstruct is running, only visible to the thread registering them.
+    private final Map<Class<?>, Object> initializing = new ConcurrentHashMap<>();
+    private final Map<Class<?>, CompletableFuture<Void>> readiness = new ConcurrentHashMap<>();
+
+    // Registered modules in registration order with the modules they depend on, used to shut down in reverse.
+    private final List<Class<?>> registrationOrder = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, Set<Class<?>>> dependencyGraph = new ConcurrentHashMap<>();
+
+    @Getter
+    private volatile List<ShutdownResult> shutdownReport = Collections.emptyList();
+
+    /**
+     * How long a single module may take in its {@link PreDestroy} methods before it is interrupted and shutdown moves on
+     */
+    @Getter
+    @Setter
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
     @Getter
     private final Plugin hostPlugin;
 
     @Getter
     private final Plugin quillPlugin;
 
+    @Getter
+    private final StartupProfiler profiler = new StartupProfiler();
+
     private final Logger logger;
+    private final PlayerScope playerScope;
 
     public DependencyContainer(Plugin hostPlugin, Plugin quillPlugin) {
         this.hostPlugin = hostPlugin;
         this.quillPlugin = quillPlugin;
         this.logger = hostPlugin.getLogger();
+        this.playerScope = new PlayerScope(this, logger);
         modules.put(Plugin.class, hostPlugin);
 
         registerCoreModules();
@@ -63,42 +91,168 @@ public class DependencyContainer {
         }
     }
 
+    /**
+     * Register multiple modules layer by layer, each layer starts once all modules of the previous one are initialized.
+     * Modules are initialized on the calling thread, except for {@link Module#parallel()} modules which are
+     * initialized on worker threads next to the rest of their layer.
+     * A module that fails is logged, and modules depending on it are skipped.
+     *
+     * @param moduleClasses The module classes
+     * @return The registered module classes, in the order they were registered
+     * @throws DependencyException if the modules depend on each other in a cycle
+     */
+    public List<Class<?>> registerModules(Collection<Class<?>> moduleClasses) {
+        return registerModules(moduleClasses, Map.of());
+    }
+
+    /**
+     * Register multiple modules, see {@link #registerModules(Collection)}
+     *
+     * @param moduleClasses The module classes
+     * @param knownDependencies Dependencies known up front, e.g. from the {@link ModuleIndex},
+     *                          modules missing from it are inspected with reflection
+     * @return The registered module classes, in the order they were registered
+     * @throws DependencyException if the modules depend on each other in a cycle
+     */
+    public List<Class<?>> registerModules(Collection<Class<?>> moduleClasses, Map<Class<?>, Set<Class<?>>> knownDependencies) {
+        // Lazy modules are created on first use, unless an eager module depends on them directly.
+        // Player scoped modules are registered after the singletons they depend on.
+        Map<Class<?>, Set<Class<?>>> graph = buildGraph(moduleClasses.stream()
+                .filter(moduleClass -> !isLazy(moduleClass) && !isPlayerScoped(moduleClass))
+                .toList(), knownDependencies);
+        List<List<Class<?>>> layers = ModuleGraph.layers(graph);
+
+        List<Class<?>> registered = Collections.synchronizedList(new ArrayList<>());
+        Set<Class<?>> failed = ConcurrentHashMap.newKeySet();
+
+        long parallel = graph.keySet().stream().filter(DependencyContainer::isParallel).count();
+        int threads = (int) Math.min(parallel, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = threads == 0 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Quill-ModuleInit-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (List<Class<?>> layer : layers) {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                List<Runnable> callingThread = new ArrayList<>();
+
+                for (Class<?> moduleClass : layer) {
+                    Optional<Class<?>> failedDependency = graph.get(moduleClass).stream().filter(failed::contains).findFirst();
+                    if (failedDependency.isPresent()) {
+                        failed.add(moduleClass);
+                        logger.severe("Skipping module " + moduleClass.getName() + ", its dependency " +
+                                failedDependency.get().getName() + " failed to register");
+                        continue;
+                    }
+
+                    Runnable task = () -> {
+                        try {
+                            registerModule(moduleClass);
+                            registered.add(moduleClass);
+                        } catch (DependencyException e) {
+                            // Already logged by registerModule.
+                            failed.add(moduleClass);
+                        }
+                    };
+
+                    if (isParallel(moduleClass)) {
+                        futures.add(CompletableFuture.runAsync(task, executor));
+                    } else {
+                        callingThread.add(task);
+                    }
+                }
+
+                callingThread.forEach(Runnable::run);
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        for (Class<?> moduleClass : moduleClasses) {
+            if (!isPlayerScoped(moduleClass)) continue;
+
+            try {
+                playerScope.register(moduleClass);
+                registered.add(moduleClass);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to register player scoped module " + moduleClass.getName(), e);
+            }
+        }
+
+        return new ArrayList<>(registered);
+    }
+
     public void registerModule(Class<?> moduleClass) {
+        if (moduleClass == null) {
+            throw new DependencyException("Module class cannot be null");
+        }
+        if (modules.containsKey(moduleClass)) return;
+
+        // Registered under a per-class lock so concurrent registrations of the same module create it only once.
+        synchronized (registrationLocks.computeIfAbsent(moduleClass, k -> new Object())) {
+            if (lookup(moduleClass) != null) return;
+            doRegisterModule(moduleClass);
+        }
+    }
+
+    /**
+     * Get a registered module, or a module the calling thread is still initializing.
+     * Other threads only see a module once its PostConstruct methods are done.
+     */
+    private Object lookup(Class<?> moduleClass) {
+        Object module = modules.get(moduleClass);
+        if (module != null) return module;
+
+        Object lock = registrationLocks.get(moduleClass);
+        return lock != null && Thread.holdsLock(lock) ? initializing.get(moduleClass) : null;
+    }
+
+    private void doRegisterModule(Class<?> moduleClass) {
         try {
             validateModuleClass(moduleClass);
 
+            if (isPlayerScoped(moduleClass)) {
+                throw new DependencyException(moduleClass.getName() + " is player scoped, inject it through " +
+                        "DependencyContainer#getScoped instead of as a singleton");
+            }
+
             // Special case: if this is the main plugin class, use the existing instance
             if (moduleClass == hostPlugin.getClass()) {
                 processPluginClass(moduleClass);
                 return;
             }
 
-            // Regular module registration
-            Object instance = createInstance(moduleClass);
+            // Regular module registration, the plan is built once per class and cached
+            String name = moduleClass.getSimpleName();
+            InjectionPlan plan = InjectionPlan.of(moduleClass);
+            Object instance;
+            try (StartupProfiler.Span ignored = profiler.span("construct", name)) {
+                instance = createInstance(plan);
+            }
 
-            try {
-                injectDependencies(instance);
+            try (StartupProfiler.Span ignored = profiler.span("inject", name)) {
+                injectDependencies(plan, instance);
             } catch (Exception e) {
                 throw new DependencyException("Failed to inject dependencies for module: " +
                         moduleClass.getName() + " - " + e.getMessage(), e);
             }
 
-            modules.put(moduleClass, instance);
-
-            try {
-                scanLifecycleMethods(moduleClass);
-            } catch (Exception e) {
-                throw new DependencyException("Failed to scan lifecycle methods for module: " +
-                        moduleClass.getName() + " - " + e.getMessage(), e);
+            initializing.put(moduleClass, instance);
+            try (StartupProfiler.Span ignored = profiler.span("postConstruct", name)) {
+                invokePostConstruct(plan, instance);
+            } finally {
+                initializing.remove(moduleClass);
             }
 
-            try {
-                invokePostConstruct(instance);
-            } catch (Exception e) {
-                // Remove the module if initialization fails
-                modules.remove(moduleClass);
-                throw e; // Re-throw to be caught by outer try-catch
-            }
+            // Published only once initialized, so other threads never see a half initialized module.
+            recordRegistration(plan);
+            modules.put(moduleClass, instance);
         } catch (Exception e) {
             Throwable cause = e.getCause() != null ? e.getCause() : e;
             String errorMessage = "Failed to register module " + moduleClass.getName() + ": " + cause.getMessage();
@@ -118,15 +272,47 @@ public class DependencyContainer {
     }
 
     private void processPluginClass(Class<?> pluginClass) {
+        InjectionPlan plan = InjectionPlan.of(pluginClass);
+        injectDependencies(plan, hostPlugin);
+
+        initializing.put(pluginClass, hostPlugin);
+        try {
+            invokePostConstruct(plan, hostPlugin);
+        } finally {
+            initializing.remove(pluginClass);
+        }
+
+        recordRegistration(plan);
         modules.put(pluginClass, hostPlugin);
-        injectDependencies(hostPlugin);
-        scanLifecycleMethods(pluginClass);
-        invokePostConstruct(hostPlugin);
+    }
+
+    private void recordRegistration(InjectionPlan plan) {
+        Set<Class<?>> dependencies = new LinkedHashSet<>();
+        plan.getConstructorDependencies().stream()
+                .filter(dependency -> !dependency.isProvider())
+                .forEach(dependency -> dependencies.add(dependency.type()));
+        plan.getFields().stream()
+                .filter(injection -> !injection.dependency().isProvider())
+                .forEach(injection -> dependencies.add(injection.dependency().type()));
+        // Modules injecting Plugin depend on the plugin class, which is registered as a module of its own.
+        // Core modules are registered before it and lose the edge, the plugin may depend on them instead.
+        if (dependencies.remove(Plugin.class)) {
+            dependencies.add(hostPlugin.getClass());
+        }
+        dependencies.removeIf(dependency -> dependency == plan.getType() || !dependencyGraph.containsKey(dependency));
+
+        dependencyGraph.put(plan.getType(), dependencies);
+        registrationOrder.add(plan.getType());
     }
 
     @SuppressWarnings("unchecked")
     public <T> T getModule(Class<T> moduleClass) {
-        T module = (T) modules.get(moduleClass);
+        // Lazy modules are created on first use
+        if (!modules.containsKey(moduleClass) && isLazy(moduleClass)) {
+            registerModule(moduleClass);
+        }
+
+        T module = (T) lookup(moduleClass);
         if (module == null) {
             throw new DependencyException("Module not found: " + moduleClass.getName() +
                     ". Make sure it's registered and annotated with @Module");
@@ -134,89 +320,266 @@ public class DependencyContainer {
         return module;
     }
 
+    /**
+     * Get the instance of a player scoped module for an online player
+     * @param moduleClass The module class, annotated with {@code @Scope(ScopeType.PLAYER)}
+     * @param uuid The player
+     * @return The instance, or empty if the player is not online
+     * @throws DependencyException if the module is not a registered player scoped module
+     */
+    public <T> Optional<T> getScoped(Class<T> moduleClass, UUID uuid) {
+        if (!playerScope.isRegistered(moduleClass)) {
+            throw new DependencyException("Player scoped module not found: " + moduleClass.getName());
+        }
+        return playerScope.get(moduleClass, uuid);
+    }
+
+    /**
+     * Get a provider for a module, the module is created on the first {@link Provider#get()} if it does not exist yet.
+     * Lazy modules created this way are initialized on the thread that first requests them.
+     *
+     * @param moduleClass The module class
+     * @return A provider of the module
+     * @throws DependencyException if the class is not a module
+     */
+    public <T> Provider<T> getProvider(Class<T> moduleClass) {
+        validateModuleClass(moduleClass);
+        return new LazyProvider<>(moduleClass);
+    }
+
+    /**
+     * Get a future that completes once the asynchronous {@link PostConstruct} methods of a module are done.
+     * Completes right away for modules without asynchronous initialization.
+     *
+     * @param moduleClass The module class
+     * @return The readiness future of the module
+     * @throws DependencyException if the module is not registered
+     */
+    public CompletableFuture<Void> whenReady(Class<?> moduleClass) {
+        CompletableFuture<Void> future = readiness.get(moduleClass);
+        if (future == null) {
+            throw new DependencyException("Module not found: " + moduleClass.getName());
+        }
+        return future;
+    }
+
+    /**
+     * Get a future that completes once every module registered so far is ready
+     * @return The combined readiness future
+     */
+    public CompletableFuture<Void> whenReady() {
+        return CompletableFuture.allOf(readiness.values().toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * @return The module classes whose asynchronous initialization has not completed yet
+     */
+    public List<Class<?>> getPendingModules() {
+        return readiness.entrySet().stream()
+                .filter(entry -> !entry.getValue().isDone())
+                .<Class<?>>map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Run the {@link PreDestroy} methods of all modules in reverse dependency order.
+     * A module is only shut down after every module depending on it. Every module is shut down on a worker thread
+     * while the calling thread waits for it, so modules that take longer than {@link #getShutdownTimeout()} are
+     * interrupted and reported instead of blocking the shutdown. Modules are shut down one at a time in order,
+     * except for {@link Module#parallel()} modules which are shut down next to the rest of their layer.
+     */
     public void shutdown() {
-        List<Class<?>> moduleClasses = new ArrayList<>(modules.keySet());
-        Collections.reverse(moduleClasses);
+        // Player scoped instances may use any singleton, so they are released first.
+        playerScope.close();
 
-        for (Class<?> moduleClass : moduleClasses) {
-            try {
-                Object instance = modules.get(moduleClass);
-                invokePreDestroy(instance);
-            } catch (Exception e) {
-                logger.warning("Error during shutdown of module " + moduleClass.getName() + ": " + e.getMessage());
+        Map<Class<?>, Set<Class<?>>> graph = new LinkedHashMap<>();
+        registrationOrder.forEach(moduleClass -> graph.put(moduleClass, dependencyGraph.getOrDefault(moduleClass, Set.of())));
+
+        List<List<Class<?>>> layers = new ArrayList<>(ModuleGraph.layers(graph));
+        Collections.reverse(layers);
+
+        List<ShutdownResult> results = new ArrayList<>();
+        int threads = Math.max(1, Math.min(registrationOrder.size(), Math.max(2, Runtime.getRuntime().availableProcessors())));
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Quill-ModuleShutdown-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (List<Class<?>> layer : layers) {
+                List<Class<?>> reversed = new ArrayList<>(layer);
+                Collections.reverse(reversed);
+                results.addAll(shutdownLayer(reversed, executor));
             }
+        } finally {
+            executor.shutdownNow();
         }
 
+        report(results);
+        shutdownReport = List.copyOf(results);
+
         modules.clear();
-        postConstructMethods.clear();
-        preDestroyMethods.clear();
+        readiness.clear();
+        registrationOrder.clear();
+        dependencyGraph.clear();
     }
 
-    private Object createInstance(Class<?> clazz) {
-        try {
-            Constructor<?> constructor = findSuitableConstructor(clazz);
-            constructor.setAccessible(true);
-
-            // For no-args constructor, just create instance
-            if (constructor.getParameterCount() == 0) {
-                return constructor.newInstance();
+    private List<ShutdownResult> shutdownLayer(List<Class<?>> layer, ExecutorService executor) {
+        List<ShutdownResult> results = new ArrayList<>();
+        List<Class<?>> serial = new ArrayList<>();
+        Map<Class<?>, Future<Boolean>> running = new LinkedHashMap<>();
+        Map<Class<?>, Long> started = new HashMap<>();
+
+        // Parallel modules are started first, each one's timeout counts from its own start.
+        for (Class<?> moduleClass : layer) {
+            Object instance = modules.get(moduleClass);
+            if (instance == null) continue;
+
+            InjectionPlan plan = InjectionPlan.of(instance.getClass());
+            if (plan.getPreDestroys().isEmpty()) continue;
+
+            if (isParallel(moduleClass)) {
+                started.put(moduleClass, System.nanoTime());
+                running.put(moduleClass, executor.submit(() -> invokePreDestroy(plan, instance)));
+            } else {
+                serial.add(moduleClass);
             }
+        }
 
-            // For parameterized constructor, resolve dependencies
-            Object[] dependencies = resolveDependencies(constructor);
-            return constructor.newInstance(dependencies);
+        // The other modules keep their order, the next one is only submitted once the previous one is done.
+        for (Class<?> moduleClass : serial) {
+            Object instance = modules.get(moduleClass);
+            InjectionPlan plan = InjectionPlan.of(instance.getClass());
+            long start = System.nanoTime();
+            results.add(awaitShutdown(moduleClass, executor.submit(() -> invokePreDestroy(plan, instance)), start));
+        }
+
+        running.forEach((moduleClass, future) -> results.add(awaitShutdown(moduleClass, future, started.get(moduleClass))));
+        return results;
+    }
+
+    private ShutdownResult awaitShutdown(Class<?> moduleClass, Future<Boolean> future, long start) {
+        ShutdownResult.Status status;
+        try {
+            status = future.get(Math.max(0, start + shutdownTimeout.toNanos() - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    ? ShutdownResult.Status.COMPLETED
+                    : ShutdownResult.Status.FAILED;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            status = ShutdownResult.Status.TIMED_OUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            status = ShutdownResult.Status.TIMED_OUT;
         } catch (Exception e) {
-            throw new DependencyException("Failed to create instance of " + clazz.getName(), e);
+            status = ShutdownResult.Status.FAILED;
         }
+        return new ShutdownResult(moduleClass, status, System.nanoTime() - start);
     }
 
-    private Constructor<?> findSuitableConstructor(Class<?> clazz) {
-        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+    private void report(List<ShutdownResult> results) {
+        List<ShutdownResult> problems = results.stream()
+                .filter(result -> result.status() != ShutdownResult.Status.COMPLETED)
+                .toList();
+        if (problems.isEmpty()) return;
 
-        // First try to find @Inject constructor
-        for (Constructor<?> constructor : constructors) {
-            if (constructor.isAnnotationPresent(Inject.class)) {
-                return constructor;
-            }
+        logger.warning("Shutdown of " + results.size() + " modules finished with " + problems.size() + " problem(s):");
+        for (ShutdownResult result : problems) {
+            logger.warning(String.format(" - %s: %s after %d ms", result.moduleClass().getName(), result.status(),
+                    TimeUnit.NANOSECONDS.toMillis(result.durationNanos())));
+        }
+    }
+
+    /**
+     * Collect the given modules and the unregistered modules they depend on, with their dependencies
+     */
+    private Map<Class<?>, Set<Class<?>>> buildGraph(Collection<Class<?>> moduleClasses,
+                                                    Map<Class<?>, Set<Class<?>>> knownDependencies) {
+        Map<Class<?>, Set<Class<?>>> graph = new LinkedHashMap<>();
+        Deque<Class<?>> queue = new ArrayDeque<>(moduleClasses);
+
+        while (!queue.isEmpty()) {
+            Class<?> moduleClass = queue.poll();
+            if (graph.containsKey(moduleClass) || modules.containsKey(moduleClass)) continue;
+
+            // The index lists the same edges as the injection plan, without inspecting the class.
+            Set<Class<?>> known = knownDependencies.get(moduleClass);
+            Set<Class<?>> dependencies = known != null ? new LinkedHashSet<>(known) : dependenciesOf(moduleClass);
+
+            dependencies.removeIf(dependency -> dependency == moduleClass
+                    || !dependency.isAnnotationPresent(Module.class)
+                    || modules.containsKey(dependency));
+            graph.put(moduleClass, dependencies);
+            queue.addAll(dependencies);
         }
+        return graph;
+    }
 
-        // Then try no-args constructor
+    private static Set<Class<?>> dependenciesOf(Class<?> moduleClass) {
+        Set<Class<?>> dependencies = new LinkedHashSet<>();
         try {
-            return clazz.getDeclaredConstructor();
-        } catch (NoSuchMethodException e) {
-            // If no suitable constructor found and there are constructors available, use the first one
-            if (constructors.length > 0) {
-                return constructors[0];
-            }
-            throw new DependencyException("No suitable constructor found for: " + clazz.getName());
+            InjectionPlan plan = InjectionPlan.of(moduleClass);
+            // Providers are resolved on first use, so they are not edges of the graph.
+            plan.getConstructorDependencies().stream()
+                    .filter(dependency -> !dependency.isProvider())
+                    .forEach(dependency -> dependencies.add(dependency.type()));
+            plan.getFields().stream()
+                    .filter(injection -> !injection.dependency().isProvider())
+                    .forEach(injection -> dependencies.add(injection.dependency().type()));
+        } catch (DependencyException e) {
+            // Reported when the module itself is registered.
         }
+        return dependencies;
     }
 
-    private void injectDependencies(Object instance) {
+    Object createInstance(InjectionPlan plan) {
         try {
-            for (Field field : instance.getClass().getDeclaredFields()) {
-                if (field.isAnnotationPresent(Inject.class)) {
-                    field.setAccessible(true);
-                    Object dependency = resolveDependency(field.getType());
-                    if (dependency == null) {
-                        throw new DependencyException("Could not resolve dependency for field: " + field);
-                    }
-                    field.set(instance, dependency);
+            // For parameterized constructor, resolve dependencies
+            return plan.newInstance(resolveDependencies(plan));
+        } catch (DependencyException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new DependencyException("Failed to create instance of " + plan.getType().getName(), t);
+        }
+    }
+
+    private void injectDependencies(InjectionPlan plan, Object instance) {
+        try {
+            for (InjectionPlan.FieldInjection injection : plan.getFields()) {
+                Object dependency = resolve(injection.dependency());
+                if (dependency == null) {
+                    throw new DependencyException("Could not resolve dependency for field: " + injection.field());
                 }
+                injection.set(instance, dependency);
             }
-        } catch (Exception e) {
-            throw new DependencyException("Failed to inject dependencies for " + instance.getClass().getName(), e);
+        } catch (Throwable t) {
+            throw new DependencyException("Failed to inject dependencies for " + instance.getClass().getName(), t);
         }
     }
 
+    Object resolve(InjectionPlan.Dependency dependency) {
+        return dependency.isProvider() ? getProvider(dependency.providedType()) : resolveDependency(dependency.type());
+    }
+
     private Object resolveDependency(Class<?> dependencyType) {
         // Special case for Plugin - return host plugin
         if (dependencyType == Plugin.class) {
             return hostPlugin;
         }
 
+        // Lets modules chain off the readiness of other modules
+        if (dependencyType == DependencyContainer.class) {
+            return this;
+        }
+
+        if (dependencyType == StartupProfiler.class) {
+            return profiler;
+        }
+
         // Check if dependency is already registered
-        Object dependency = modules.get(dependencyType);
+        Object dependency = lookup(dependencyType);
         if (dependency != null) {
             return dependency;
         }
@@ -224,23 +587,23 @@ public class DependencyContainer {
         // If not found, and it's a module, try to register it
         if (dependencyType.isAnnotationPresent(Module.class)) {
             registerModule(dependencyType);
-            return modules.get(dependencyType);
+            return lookup(dependencyType);
         }
 
         return null;
     }
 
-    private Object[] resolveDependencies(Constructor<?> constructor) {
-        Parameter[] parameters = constructor.getParameters();
-        Object[] dependencies = new Object[parameters.length];
+    private Object[] resolveDependencies(InjectionPlan plan) {
+        List<InjectionPlan.Dependency> parameters = plan.getConstructorDependencies();
+        Object[] dependencies = new Object[parameters.size()];
 
-        for (int i = 0; i < parameters.length; i++) {
-            Class<?> paramType = parameters[i].getType();
-            Object dependency = resolveDependency(paramType);
+        for (int i = 0; i < dependencies.length; i++) {
+            InjectionPlan.Dependency parameter = parameters.get(i);
+            Object dependency = resolve(parameter);
 
             if (dependency == null) {
-                throw new DependencyException("Could not resolve dependency: " + paramType.getName() +
-                        " for constructor: " + constructor.getDeclaringClass().getName());
+                throw new DependencyException("Could not resolve dependency: " + parameter.type().getName() +
+                        " for constructor: " + plan.getType().getName());
             }
 
             dependencies[i] = dependency;
@@ -249,74 +612,87 @@ public class DependencyContainer {
         return dependencies;
     }
 
-    private void scanLifecycleMethods(Class<?> clazz) {
-        List<Method> postConstructs = new ArrayList<>();
-        List<Method> preDestroys = new ArrayList<>();
+    private void invokePostConstruct(InjectionPlan plan, Object instance) {
+        List<CompletableFuture<?>> pending = new ArrayList<>();
 
-        for (Method method : clazz.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(PostConstruct.class)) {
-                validateLifecycleMethod(method);
-                postConstructs.add(method);
-            }
-            if (method.isAnnotationPresent(PreDestroy.class)) {
-                validateLifecycleMethod(method);
-                preDestroys.add(method);
+        for (InjectionPlan.LifecycleMethod method : plan.getPostConstructs()) {
+            try {
+                // Methods returning a future finish their initialization asynchronously
+                if (method.invoke(instance) instanceof CompletionStage<?> stage) {
+                    pending.add(stage.toCompletableFuture().whenComplete((result, error) -> {
+                        if (error != null) {
+                            logger.log(Level.SEVERE, "Failed to initialize module: " +
+                                    instance.getClass().getName() + "#" + method.name(), error);
+                        }
+                    }));
+                }
+            } catch (Throwable t) {
+                String errorMessage = String.format("Failed to initialize module: %s#%s - %s",
+                        instance.getClass().getName(),
+                        method.name(),
+                        t.getMessage()
+                );
+                logger.log(Level.SEVERE, errorMessage, t);
+                throw new DependencyException(errorMessage, t);
             }
         }
 
-        if (!postConstructs.isEmpty()) {
-            postConstructMethods.put(clazz, postConstructs);
-        }
-        if (!preDestroys.isEmpty()) {
-            preDestroyMethods.put(clazz, preDestroys);
-        }
+        readiness.put(instance.getClass(), pending.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])));
     }
 
-    private void validateLifecycleMethod(Method method) {
-        if (method.getParameterCount() > 0) {
-            throw new DependencyException("Lifecycle method must have no parameters: " +
-                    method.getDeclaringClass().getName() + "#" + method.getName());
+    private boolean invokePreDestroy(InjectionPlan plan, Object instance) {
+        boolean success = true;
+        for (InjectionPlan.LifecycleMethod method : plan.getPreDestroys()) {
+            try {
+                method.invoke(instance);
+            } catch (Throwable t) {
+                success = false;
+                String errorMessage = String.format("Failed to cleanup module: %s#%s - %s",
+                        instance.getClass().getName(),
+                        method.name(),
+                        t.getMessage()
+                );
+                logger.log(Level.SEVERE, errorMessage, t);
+            }
         }
+        return success;
     }
 
-    private void invokePostConstruct(Object instance) {
-        List<Method> methods = postConstructMethods.get(instance.getClass());
-        if (methods != null) {
-            for (Method method : methods) {
-                try {
-                    method.setAccessible(true);
-                    method.invoke(instance);
-                } catch (Exception e) {
-                    Throwable cause = e.getCause() != null ? e.getCause() : e;
-                    String errorMessage = String.format("Failed to initialize module: %s#%s - %s",
-                            instance.getClass().getName(),
-                            method.getName(),
-                            cause.getMessage()
-                    );
-                    logger.log(Level.SEVERE, errorMessage, cause);
-                    throw new DependencyException(errorMessage, cause);
-                }
-            }
-        }
+    private static boolean isPlayerScoped(Class<?> moduleClass) {
+        Scope scope = moduleClass.getAnnotation(Scope.class);
+        return scope != null && scope.value() == ScopeType.PLAYER;
     }
 
-    private void invokePreDestroy(Object instance) {
-        List<Method> methods = preDestroyMethods.get(instance.getClass());
-        if (methods != null) {
-            for (Method method : methods) {
-                try {
-                    method.setAccessible(true);
-                    method.invoke(instance);
-                } catch (Exception e) {
-                    Throwable cause = e.getCause() != null ? e.getCause() : e;
-                    String errorMessage = String.format("Failed to cleanup module: %s#%s - %s",
-                            instance.getClass().getName(),
-                            method.getName(),
-                            cause.getMessage()
-                    );
-                    logger.log(Level.SEVERE, errorMessage, cause);
-                }
+    private static boolean isLazy(Class<?> moduleClass) {
+        Module module = moduleClass.getAnnotation(Module.class);
+        return module != null && module.lazy();
+    }
+
+    private static boolean isParallel(Class<?> moduleClass) {
+        Module module = moduleClass.getAnnotation(Module.class);
+        return module != null && module.parallel();
+    }
+
+    private final class LazyProvider<T> implements Provider<T> {
+        private final Class<T> moduleClass;
+        private volatile T instance;
+
+        private LazyProvider(Class<T> moduleClass) {
+            this.moduleClass = moduleClass;
+        }
+
+        @Override
+        public T get() {
+            T current = instance;
+            if (current == null) {
+                // registerModule locks per class, so concurrent first calls still create a single instance.
+                registerModule(moduleClass);
+                current = getModule(moduleClass);
+                instance = current;
             }
+            return current;
         }
     }
-}
\ No newline at end of file
+}
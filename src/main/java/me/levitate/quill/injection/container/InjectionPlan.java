@@ -0,0 +1,197 @@
+package me.levitate.quill.injection.container;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.levitate.quill.injection.Provider;
+import me.levitate.quill.injection.annotation.Inject;
+import me.levitate.quill.injection.annotation.PostConstruct;
+import me.levitate.quill.injection.annotation.PreDestroy;
+import me.levitate.quill.injection.exception.DependencyException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything the container needs to create, inject and run the lifecycle of a class, resolved once per class.
+ * <p>
+ * Constructors, field setters and lifecycle methods are unreflected into {@link MethodHandle}s with generic
+ * signatures, so creating and injecting instances does not go through core reflection again.
+ * Plans are cached per class and shared between containers, so rebuilding a container on reload reuses them.
+ * </p>
+ */
+@Getter
+final class InjectionPlan {
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        }
+    };
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType LIFECYCLE_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> type;
+    private final List<Dependency> constructorDependencies;
+    private final List<FieldInjection> fields;
+    private final List<LifecycleMethod> postConstructs;
+    private final List<LifecycleMethod> preDestroys;
+
+    @Getter(AccessLevel.NONE)
+    private final MethodHandle constructor;
+
+    static InjectionPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private InjectionPlan(Class<?> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            Constructor<?> suitable = findSuitableConstructor(type);
+            suitable.setAccessible(true);
+            List<Dependency> parameters = new ArrayList<>();
+            Type[] genericTypes = suitable.getGenericParameterTypes();
+            Class<?>[] parameterTypes = suitable.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                // Generic types can be missing for synthetic parameters, e.g. of inner classes
+                Type generic = genericTypes.length == parameterTypes.length ? genericTypes[i] : parameterTypes[i];
+                parameters.add(Dependency.of(parameterTypes[i], generic, type));
+            }
+            this.constructorDependencies = List.copyOf(parameters);
+            this.constructor = lookup.unreflectConstructor(suitable)
+                    .asSpreader(Object[].class, suitable.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+
+            List<FieldInjection> injections = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(Inject.class)) continue;
+
+                field.setAccessible(true);
+                MethodHandle setter = lookup.unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    // Static setters take no instance, accept and ignore one so all setters share a signature.
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                }
+                injections.add(new FieldInjection(field, Dependency.of(field.getType(), field.getGenericType(), type),
+                        setter.asType(SETTER_TYPE)));
+            }
+            this.fields = List.copyOf(injections);
+
+            List<LifecycleMethod> postConstructs = new ArrayList<>();
+            List<LifecycleMethod> preDestroys = new ArrayList<>();
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(PostConstruct.class)) {
+                    postConstructs.add(lifecycleMethod(lookup, method));
+                }
+                if (method.isAnnotationPresent(PreDestroy.class)) {
+                    preDestroys.add(lifecycleMethod(lookup, method));
+                }
+            }
+            this.postConstructs = List.copyOf(postConstructs);
+            this.preDestroys = List.copyOf(preDestroys);
+        } catch (IllegalAccessException e) {
+            throw new DependencyException("Failed to access members of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Create a new instance
+     * @param dependencies The resolved constructor dependencies, in the order of {@link #getConstructorDependencies()}
+     */
+    Object newInstance(Object[] dependencies) throws Throwable {
+        return (Object) constructor.invokeExact(dependencies);
+    }
+
+    private static LifecycleMethod lifecycleMethod(MethodHandles.Lookup lookup, Method method) throws IllegalAccessException {
+        if (method.getParameterCount() > 0) {
+            throw new DependencyException("Lifecycle method must have no parameters: " +
+                    method.getDeclaringClass().getName() + "#" + method.getName());
+        }
+
+        method.setAccessible(true);
+        MethodHandle handle = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            // Same as static setters, accept and ignore the instance.
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return new LifecycleMethod(method.getName(), handle.asType(LIFECYCLE_TYPE));
+    }
+
+    private static Constructor<?> findSuitableConstructor(Class<?> clazz) {
+        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+
+        // First try to find @Inject constructor
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                return constructor;
+            }
+        }
+
+        // Then try no-args constructor, otherwise use the first one
+        return Arrays.stream(constructors)
+                .filter(constructor -> constructor.getParameterCount() == 0)
+                .findFirst()
+                .orElseGet(() -> {
+                    if (constructors.length > 0) {
+                        return constructors[0];
+                    }
+                    throw new DependencyException("No suitable constructor found for: " + clazz.getName());
+                });
+    }
+
+    /**
+     * A dependency of a module, either a module itself or a {@link Provider} of one
+     * @param type The requested type
+     * @param providedType The module type of a provider, null if the type is not a provider
+     */
+    record Dependency(Class<?> type, Class<?> providedType) {
+        boolean isProvider() {
+            return providedType != null;
+        }
+
+        /**
+         * @return The module class this dependency refers to
+         */
+        Class<?> moduleType() {
+            return providedType != null ? providedType : type;
+        }
+
+        private static Dependency of(Class<?> type, Type genericType, Class<?> owner) {
+            if (type != Provider.class) return new Dependency(type, null);
+
+            if (genericType instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> provided) {
+                return new Dependency(type, provided);
+            }
+            throw new DependencyException("Provider in " + owner.getName() + " must declare the module type, e.g. Provider<MyModule>");
+        }
+    }
+
+    record FieldInjection(Field field, Dependency dependency, MethodHandle setter) {
+        void set(Object instance, Object value) throws Throwable {
+            setter.invokeExact(instance, value);
+        }
+    }
+
+    record LifecycleMethod(String name, MethodHandle handle) {
+        /**
+         * @return The value returned by the method, null for void methods
+         */
+        Object invoke(Object instance) throws Throwable {
+            return (Object) handle.invokeExact(instance);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package me.levitate.quill.injection.container;
+
+import me.levitate.quill.injection.exception.DependencyException;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Dependency graph of module classes, used to find an initialization order.
+ */
+final class ModuleGraph {
+    private ModuleGraph() {
+    }
+
+    /**
+     * Split a graph into layers, every module only depends on modules of earlier layers.
+     * Modules within a layer do not depend on each other.
+     *
+     * @param graph Module class to the module classes it depends on, dependencies outside the graph are ignored
+     * @return The layers, in initialization order
+     * @throws DependencyException if the graph contains a cycle
+     */
+    static List<List<Class<?>>> layers(Map<Class<?>, Set<Class<?>>> graph) {
+        Map<Class<?>, Integer> remaining = new LinkedHashMap<>();
+        Map<Class<?>, List<Class<?>>> dependents = new HashMap<>();
+
+        graph.forEach((module, dependencies) -> {
+            int count = 0;
+            for (Class<?> dependency : dependencies) {
+                if (!graph.containsKey(dependency)) continue;
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(module);
+                count++;
+            }
+            remaining.put(module, count);
+        });
+
+        List<List<Class<?>>> layers = new ArrayList<>();
+        List<Class<?>> current = remaining.entrySet().stream()
+                .filter(entry -> entry.getValue() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        while (!current.isEmpty()) {
+            layers.add(current);
+            current.forEach(remaining::remove);
+
+            List<Class<?>> next = new ArrayList<>();
+            for (Class<?> module : current) {
+                for (Class<?> dependent : dependents.getOrDefault(module, Collections.emptyList())) {
+                    if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            current = next;
+        }
+
+        if (!remaining.isEmpty()) {
+            throw new DependencyException("Circular dependency between modules: " + describeCycle(graph, remaining.keySet()));
+        }
+        return layers;
+    }
+
+    private static String describeCycle(Map<Class<?>, Set<Class<?>>> graph, Set<Class<?>> candidates) {
+        // Every module left over is on or behind a cycle, walk dependencies until a module repeats.
+        List<Class<?>> path = new ArrayList<>();
+        Class<?> module = candidates.iterator().next();
+
+        while (!path.contains(module)) {
+            path.add(module);
+            module = graph.get(module).stream()
+                    .filter(candidates::contains)
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        List<Class<?>> cycle = new ArrayList<>(path.subList(path.indexOf(module), path.size()));
+        cycle.add(module);
+        return cycle.stream().map(Class::getSimpleName).collect(Collectors.joining(" -> "));
+    }
+}
@@ -0,0 +1,56 @@
+package me.levitate.quill.injection.container;
+
+import lombok.Getter;
+import me.levitate.quill.injection.processor.ModuleIndexProcessor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Module and config classes of a plugin as listed by the index that {@link ModuleIndexProcessor} writes at compile time.
+ * Only names are stored, no class is loaded while reading the index.
+ */
+@Getter
+public class ModuleIndex {
+    // Module class name to the class names of its dependencies, in the order of the index.
+    private final Map<String, List<String>> modules = new LinkedHashMap<>();
+    private final List<String> configs = new ArrayList<>();
+
+    /**
+     * Read the index of a plugin
+     * @param classLoader The class loader of the plugin
+     * @return The index, or empty if the plugin was compiled without the processor
+     * @throws IOException if the index exists but cannot be read
+     */
+    public static Optional<ModuleIndex> read(ClassLoader classLoader) throws IOException {
+        URL resource = classLoader.getResource(ModuleIndexProcessor.INDEX_FILE);
+        if (resource == null) return Optional.empty();
+
+        ModuleIndex index = new ModuleIndex();
+        try (InputStream input = resource.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] parts = line.split(" ");
+                if (parts.length < 2) continue;
+
+                switch (parts[0]) {
+                    case "module" -> index.modules.put(parts[1], List.of(Arrays.copyOfRange(parts, 2, parts.length)));
+                    case "config" -> index.configs.add(parts[1]);
+                    default -> {
+                        // Unknown entry written by a newer version, ignore it.
+                    }
+                }
+            }
+        }
+        return Optional.of(index);
+    }
+}
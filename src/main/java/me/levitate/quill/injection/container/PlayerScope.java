@@ -0,0 +1,174 @@
+package me.levitate.quill.injection.container;
+
+import me.levitate.quill.event.EventManager;
+import me.levitate.quill.injection.exception.DependencyException;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instances of player scoped modules, one per module and online player.
+ * Instances are activated on join, released on quit and kept in a bounded pool for the next player.
+ * Joins and quits happen on the server thread, lookups through {@link #get(Class, UUID)} are safe from any thread.
+ */
+final class PlayerScope {
+    private static final int MAX_POOL_SIZE = 32;
+
+    private final DependencyContainer container;
+    private final Logger logger;
+    // Guarded by this, in registration order. The key set is mirrored for lock free lookups from any thread.
+    private final Map<Class<?>, ScopedType> types = new LinkedHashMap<>();
+    private final Set<Class<?>> registered = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Map<Class<?>, Object>> instances = new ConcurrentHashMap<>();
+    private boolean listening;
+
+    PlayerScope(DependencyContainer container, Logger logger) {
+        this.container = container;
+        this.logger = logger;
+    }
+
+    /**
+     * Register a player scoped module, online players get an instance right away
+     */
+    synchronized void register(Class<?> moduleClass) {
+        if (types.containsKey(moduleClass)) return;
+
+        InjectionPlan plan = InjectionPlan.of(moduleClass);
+        types.put(moduleClass, new ScopedType(plan));
+        registered.add(moduleClass);
+
+        if (!listening) {
+            listening = true;
+            EventManager eventManager = container.getModule(EventManager.class);
+            eventManager.listen(PlayerJoinEvent.class)
+                    .lowest()
+                    .handle(event -> join(event.getPlayer()));
+            eventManager.listen(PlayerQuitEvent.class)
+                    .monitor()
+                    .handle(event -> quit(event.getPlayer().getUniqueId()));
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            activate(moduleClass, types.get(moduleClass), player);
+        }
+    }
+
+    boolean isRegistered(Class<?> moduleClass) {
+        return registered.contains(moduleClass);
+    }
+
+    <T> Optional<T> get(Class<T> moduleClass, UUID uuid) {
+        Map<Class<?>, Object> scoped = instances.get(uuid);
+        return scoped == null ? Optional.empty() : Optional.ofNullable(moduleClass.cast(scoped.get(moduleClass)));
+    }
+
+    /**
+     * Release the instances of all players, called before the singletons are shut down
+     */
+    synchronized void close() {
+        new ArrayList<>(instances.keySet()).forEach(this::quit);
+        types.values().forEach(type -> type.pool.clear());
+        types.clear();
+        registered.clear();
+    }
+
+    private synchronized void join(Player player) {
+        types.forEach((moduleClass, type) -> activate(moduleClass, type, player));
+    }
+
+    private synchronized void quit(UUID uuid) {
+        Map<Class<?>, Object> scoped = instances.remove(uuid);
+        if (scoped == null) return;
+
+        scoped.forEach((moduleClass, instance) -> {
+            ScopedType type = types.get(moduleClass);
+            if (type != null) {
+                release(type, instance);
+            }
+        });
+    }
+
+    private void activate(Class<?> moduleClass, ScopedType type, Player player) {
+        Map<Class<?>, Object> scoped = instances.computeIfAbsent(player.getUniqueId(), k -> new ConcurrentHashMap<>());
+        if (scoped.containsKey(moduleClass)) return;
+
+        try {
+            Object instance = type.pool.isEmpty() ? create(type.plan) : type.pool.pop();
+            setPlayerFields(type.plan, instance, player);
+
+            for (InjectionPlan.LifecycleMethod method : type.plan.getPostConstructs()) {
+                method.invoke(instance);
+            }
+            scoped.put(moduleClass, instance);
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "Failed to create " + moduleClass.getName() + " for " + player.getName(), t);
+        }
+    }
+
+    private void release(ScopedType type, Object instance) {
+        for (InjectionPlan.LifecycleMethod method : type.plan.getPreDestroys()) {
+            try {
+                method.invoke(instance);
+            } catch (Throwable t) {
+                // A failed cleanup may leave state behind, so the instance is not reused.
+                logger.log(Level.SEVERE, "Failed to release " + instance.getClass().getName() + "#" + method.name(), t);
+                return;
+            }
+        }
+
+        try {
+            setPlayerFields(type.plan, instance, null);
+        } catch (Throwable t) {
+            return;
+        }
+
+        if (type.pool.size() < MAX_POOL_SIZE) {
+            type.pool.push(instance);
+        }
+    }
+
+    private Object create(InjectionPlan plan) throws Throwable {
+        Object instance = container.createInstance(plan);
+        for (InjectionPlan.FieldInjection injection : plan.getFields()) {
+            if (isPlayerField(injection)) continue;
+
+            Object dependency = container.resolve(injection.dependency());
+            if (dependency == null) {
+                throw new DependencyException("Could not resolve dependency for field: " + injection.field());
+            }
+            injection.set(instance, dependency);
+        }
+        return instance;
+    }
+
+    private static void setPlayerFields(InjectionPlan plan, Object instance, Player player) throws Throwable {
+        for (InjectionPlan.FieldInjection injection : plan.getFields()) {
+            Class<?> type = injection.dependency().type();
+            if (type == Player.class) {
+                injection.set(instance, player);
+            } else if (type == UUID.class) {
+                injection.set(instance, player != null ? player.getUniqueId() : null);
+            }
+        }
+    }
+
+    private static boolean isPlayerField(InjectionPlan.FieldInjection injection) {
+        Class<?> type = injection.dependency().type();
+        return type == Player.class || type == UUID.class;
+    }
+
+    private static final class ScopedType {
+        private final InjectionPlan plan;
+        private final Deque<Object> pool = new ArrayDeque<>();
+
+        private ScopedType(InjectionPlan plan) {
+            this.plan = plan;
+        }
+    }
+}
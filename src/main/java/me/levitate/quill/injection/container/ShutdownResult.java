@@ -0,0 +1,15 @@
+package me.levitate.quill.injection.container;
+
+/**
+ * Outcome of the {@link me.levitate.quill.injection.annotation.PreDestroy} methods of a single module
+ * @param moduleClass The module class
+ * @param status How the shutdown ended
+ * @param durationNanos How long it took, or how long was waited before giving up
+ */
+public record ShutdownResult(Class<?> moduleClass, Status status, long durationNanos) {
+    public enum Status {
+        COMPLETED,
+        FAILED,
+        TIMED_OUT
+    }
+}
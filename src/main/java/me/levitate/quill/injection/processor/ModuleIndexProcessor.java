@@ -0,0 +1,138 @@
+package me.levitate.quill.injection.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes {@value #INDEX_FILE} at compile time, listing every {@code @Module} class with its dependencies
+ * and every {@code @Config} class. {@link me.levitate.quill.injection.QuillPlugin} reads the index on enable
+ * instead of scanning the plugin JAR.
+ * <p>
+ * Enable it with {@code annotationProcessor("me.levitate:Quill:<version>")} next to the compileOnly dependency.
+ * </p>
+ */
+@SupportedAnnotationTypes({ModuleIndexProcessor.MODULE_ANNOTATION, ModuleIndexProcessor.CONFIG_ANNOTATION})
+public class ModuleIndexProcessor extends AbstractProcessor {
+    public static final String INDEX_FILE = "META-INF/quill/modules.idx";
+
+    static final String MODULE_ANNOTATION = "me.levitate.quill.injection.annotation.Module";
+    static final String CONFIG_ANNOTATION = "me.levitate.quill.config.annotation.Config";
+    private static final String INJECT_ANNOTATION = "me.levitate.quill.injection.annotation.Inject";
+    private static final String PROVIDER_TYPE = "me.levitate.quill.injection.Provider";
+
+    // Sorted so the generated file is stable between builds.
+    private final Map<String, Set<String>> modules = new TreeMap<>();
+    private final Set<String> configs = new TreeSet<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            String name = annotation.getQualifiedName().toString();
+
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                originatingElements.add(type);
+                if (name.equals(MODULE_ANNOTATION)) {
+                    modules.put(binaryName(type), dependenciesOf(type));
+                } else {
+                    configs.add(binaryName(type));
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && (!modules.isEmpty() || !configs.isEmpty())) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private Set<String> dependenciesOf(TypeElement type) {
+        Set<String> dependencies = new TreeSet<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(field, INJECT_ANNOTATION)) {
+                addDependency(field.asType(), dependencies);
+            }
+        }
+
+        // Mirrors DependencyContainer: an @Inject constructor, otherwise the first constructor if there is no no-args one.
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        ExecutableElement constructor = constructors.stream()
+                .filter(element -> hasAnnotation(element, INJECT_ANNOTATION))
+                .findFirst()
+                .orElse(null);
+
+        if (constructor == null && constructors.stream().noneMatch(element -> element.getParameters().isEmpty())
+                && !constructors.isEmpty()) {
+            constructor = constructors.get(0);
+        }
+
+        if (constructor != null) {
+            constructor.getParameters().forEach(parameter -> addDependency(parameter.asType(), dependencies));
+        }
+        return dependencies;
+    }
+
+    private void addDependency(TypeMirror type, Set<String> dependencies) {
+        if (type.getKind() != TypeKind.DECLARED) return;
+
+        // Providers are resolved on first use, so they are not edges of the module graph.
+        Element element = ((DeclaredType) type).asElement();
+        if (element instanceof TypeElement typeElement && !typeElement.getQualifiedName().contentEquals(PROVIDER_TYPE)) {
+            dependencies.add(binaryName(typeElement));
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_FILE,
+                    originatingElements.toArray(new Element[0]));
+
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Generated by Quill, do not edit\n");
+                for (Map.Entry<String, Set<String>> entry : modules.entrySet()) {
+                    writer.write("module " + entry.getKey());
+                    for (String dependency : entry.getValue()) {
+                        writer.write(" " + dependency);
+                    }
+                    writer.write("\n");
+                }
+                for (String config : configs) {
+                    writer.write("config " + config + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + INDEX_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(annotationName)) return true;
+        }
+        return false;
+    }
+}
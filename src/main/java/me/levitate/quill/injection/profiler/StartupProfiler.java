@@ -0,0 +1,178 @@
+package me.levitate.quill.injection.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Records how long the steps of enabling a plugin take, e.g. scanning, creating modules and parsing configs.
+ * <p>
+ * Each step is measured by a {@link Span}, used with try-with-resources. Spans opened while another span of the
+ * same thread is open are its children, their time is excluded from the self time of the parent, e.g. creating
+ * a dependency while injecting a module. Recording stops once the plugin is enabled, spans opened afterwards do nothing.
+ * Modules can inject the profiler to measure their own steps.
+ * The result can be printed as a table or exported in the Chrome trace format (chrome://tracing, Perfetto).
+ * </p>
+ */
+public class StartupProfiler {
+    private static final Span NO_OP = () -> {
+    };
+
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Deque<OpenSpan>> openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    private final long origin = System.nanoTime();
+    private volatile boolean recording = true;
+
+    /**
+     * Start measuring a step
+     * @param category The kind of step, e.g. "module" or "config"
+     * @param name The name of the step, e.g. the class name
+     * @return The span, closing it records the duration. It has to be closed on the thread that opened it.
+     */
+    public Span span(String category, String name) {
+        if (!recording) return NO_OP;
+
+        OpenSpan span = new OpenSpan(category, name);
+        openSpans.get().push(span);
+        return span;
+    }
+
+    /**
+     * Stop recording, called once the plugin is enabled
+     */
+    public void stop() {
+        recording = false;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * @return All recorded steps, in the order they finished
+     */
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * Print the recorded steps as a table, highest self time first
+     * @param output Receives one line per step
+     */
+    public void printTable(Consumer<String> output) {
+        List<Entry> sorted = getEntries();
+        sorted.sort(Comparator.comparingLong(Entry::selfNanos).reversed());
+
+        output.accept(String.format("%10s  %10s  %-14s  %-40s  %s", "Self", "Total", "Category", "Name", "Thread"));
+        for (Entry entry : sorted) {
+            output.accept(String.format("%7.2f ms  %7.2f ms  %-14s  %-40s  %s",
+                    entry.selfNanos() / 1_000_000.0, entry.durationNanos() / 1_000_000.0,
+                    entry.category(), entry.name(), entry.thread()));
+        }
+    }
+
+    /**
+     * Write the recorded steps in the Chrome trace event format
+     * @param file The file, replaced if it exists
+     * @throws IOException if writing fails
+     */
+    public void exportChromeTrace(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+            boolean first = true;
+            for (Entry entry : getEntries()) {
+                if (!first) writer.write(",");
+                first = false;
+
+                writer.write(String.format("{\"name\":\"%s\",\"cat\":\"%s\",\"ph\":\"X\",\"ts\":%d,\"dur\":%d,\"pid\":1,\"tid\":%d,\"args\":{\"thread\":\"%s\"}}",
+                        escape(entry.name()), escape(entry.category()),
+                        TimeUnit.NANOSECONDS.toMicros(entry.startNanos()),
+                        TimeUnit.NANOSECONDS.toMicros(entry.durationNanos()),
+                        entry.threadId(), escape(entry.thread())));
+            }
+            writer.write("]}");
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A step being measured, closing it records its duration
+     */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A measured step
+     * @param startNanos Start relative to the creation of the profiler
+     * @param durationNanos Time between opening and closing the span
+     * @param selfNanos The duration without the time spent in child spans
+     */
+    public record Entry(String category, String name, String thread, long threadId, long startNanos,
+                        long durationNanos, long selfNanos) {
+    }
+
+    private final class OpenSpan implements Span {
+        private final String category;
+        private final String name;
+        private final Thread thread = Thread.currentThread();
+        private final long start = System.nanoTime();
+        private long childNanos;
+
+        private OpenSpan(String category, String name) {
+            this.category = category;
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            long duration = System.nanoTime() - start;
+
+            Deque<OpenSpan> stack = openSpans.get();
+            stack.remove(this);
+            OpenSpan parent = stack.peek();
+            if (parent != null) {
+                parent.childNanos += duration;
+            }
+
+            entries.add(new Entry(category, name, thread.getName(), thread.getId(), start - origin,
+                    duration, duration - childNanos));
+        }
+    }
+}
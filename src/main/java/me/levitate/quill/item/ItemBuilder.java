@@ -233,6 +233,16 @@ public class ItemBuilder {
         return item;
     }
 
+    /**
+     * Compile the current state of the builder into an immutable template.
+     * Later changes to the builder do not affect the template.
+     *
+     * @return A new ItemTemplate
+     */
+    public ItemTemplate compile() {
+        return new ItemTemplate(build(), name, lore);
+    }
+
     public boolean hasString(ItemStack item, String key) {
         ItemMeta meta = item.getItemMeta();
         return meta != null && plugin != null && meta.getPersistentDataContainer().has(getKey(key), PersistentDataType.STRING);
@@ -0,0 +1,249 @@
+package me.levitate.quill.item;
+
+import me.levitate.quill.utils.common.FileHelper;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed dictionary of items, used to store repeated items (filler glass, kit items, tools) only once.
+ * <p>
+ * Every unique item is serialized with Paper's native format and stored under the hash of its bytes.
+ * The hash is taken from a single item, so stacks that only differ in their amount share one entry and the
+ * amount is kept in the id instead ({@code <hash>:<amount>}, the suffix is left out for an amount of one).
+ * Inventories are stored as arrays of ids instead, see {@link #intern(ItemStack[])} and {@link #resolve(String[])}.
+ * Each id is reference counted, entries that are no longer referenced are removed by {@link #collectGarbage()}.
+ * Decoded items are cached, so every unique item is only deserialized once.
+ * </p>
+ */
+public class ItemDictionary {
+    private static final int FILE_MAGIC = 0x51494431; // "QID1"
+    private static final char AMOUNT_SEPARATOR = ':';
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Store the items of an inventory and return their ids, one reference is added per item.
+     *
+     * @param items The items, null and air entries become null ids
+     * @return Array of ids with the same length as the items
+     */
+    public String[] intern(ItemStack[] items) {
+        String[] ids = new String[items.length];
+        for (int i = 0; i < items.length; i++) {
+            ids[i] = intern(items[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Store a single item and return its id, one reference is added.
+     *
+     * @param item The item
+     * @return The id of the item including its amount, or null for an empty item
+     */
+    public String intern(ItemStack item) {
+        if (item == null || item.getType().isAir()) return null;
+
+        byte[] bytes = item.asOne().serializeAsBytes();
+        String hash = hash(bytes);
+        entries.compute(hash, (key, entry) -> {
+            Entry result = entry != null ? entry : new Entry(bytes, 0);
+            result.references.incrementAndGet();
+            return result;
+        });
+
+        int amount = item.getAmount();
+        return amount == 1 ? hash : hash + AMOUNT_SEPARATOR + amount;
+    }
+
+    /**
+     * Resolve an array of ids back into items. The returned items are copies and may be modified freely.
+     *
+     * @param ids The ids created by {@link #intern(ItemStack[])}
+     * @return Array of items, null ids become null items
+     * @throws IllegalArgumentException if an id is unknown
+     */
+    public ItemStack[] resolve(String[] ids) {
+        ItemStack[] items = new ItemStack[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            items[i] = resolve(ids[i]);
+        }
+        return items;
+    }
+
+    /**
+     * Resolve a single id back into an item.
+     *
+     * @param id The id
+     * @return A copy of the item, or null if the id is null
+     * @throws IllegalArgumentException if the id is unknown
+     */
+    public ItemStack resolve(String id) {
+        if (id == null) return null;
+
+        Entry entry = entries.get(hashOf(id));
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown item id: " + id);
+        }
+
+        ItemStack item = entry.prototype().clone();
+        item.setAmount(amountOf(id));
+        return item;
+    }
+
+    /**
+     * Remove one reference from every given id, e.g. when an inventory is deleted or overwritten.
+     *
+     * @param ids The ids
+     */
+    public void release(String[] ids) {
+        for (String id : ids) {
+            release(id);
+        }
+    }
+
+    /**
+     * Remove one reference from an id.
+     *
+     * @param id The id
+     */
+    public void release(String id) {
+        if (id == null) return;
+
+        Entry entry = entries.get(hashOf(id));
+        if (entry != null) {
+            entry.references.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+
+    /**
+     * Remove all entries that are no longer referenced.
+     *
+     * @return The amount of removed entries
+     */
+    public int collectGarbage() {
+        AtomicInteger removed = new AtomicInteger();
+        for (String id : entries.keySet()) {
+            // Checked inside computeIfPresent so a concurrent intern of the same item cannot be lost.
+            entries.computeIfPresent(id, (key, entry) -> {
+                if (entry.references.get() > 0) return entry;
+                removed.incrementAndGet();
+                return null;
+            });
+        }
+        return removed.get();
+    }
+
+    /**
+     * @return The amount of unique items in the dictionary
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write the dictionary to a file, the file is replaced atomically.
+     *
+     * @param file The file
+     * @throws IOException if writing fails
+     */
+    public void save(File file) throws IOException {
+        Map<String, Entry> snapshot = Map.copyOf(entries);
+        FileHelper.writeAtomically(file.toPath(), stream -> {
+            DataOutputStream output = new DataOutputStream(stream);
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(snapshot.size());
+
+            for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                output.writeUTF(mapEntry.getKey());
+                output.writeInt(entry.references.get());
+                output.writeInt(entry.bytes.length);
+                output.write(entry.bytes);
+            }
+        });
+    }
+
+    /**
+     * Replace the contents of the dictionary with the contents of a file. Does nothing if the file does not exist.
+     *
+     * @param file The file
+     * @throws IOException if the file is not a valid dictionary
+     */
+    public void load(File file) throws IOException {
+        if (!file.exists()) return;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (input.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a valid item dictionary: " + file);
+            }
+
+            int size = input.readInt();
+            Map<String, Entry> loaded = new ConcurrentHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                String id = input.readUTF();
+                int references = input.readInt();
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                loaded.put(id, new Entry(bytes, references));
+            }
+
+            entries.clear();
+            entries.putAll(loaded);
+        }
+    }
+
+    private static String hashOf(String id) {
+        int separator = id.indexOf(AMOUNT_SEPARATOR);
+        return separator == -1 ? id : id.substring(0, separator);
+    }
+
+    private static int amountOf(String id) {
+        int separator = id.indexOf(AMOUNT_SEPARATOR);
+        if (separator == -1) return 1;
+
+        try {
+            return Integer.parseInt(id, separator + 1, id.length(), 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid item id: " + id, e);
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            // 128 bits of SHA-256 keeps ids short while collisions stay practically impossible.
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] bytes;
+        private final AtomicInteger references;
+        private volatile ItemStack prototype;
+
+        private Entry(byte[] bytes, int references) {
+            this.bytes = bytes;
+            this.references = new AtomicInteger(references);
+        }
+
+        private ItemStack prototype() {
+            ItemStack current = prototype;
+            if (current == null) {
+                current = ItemStack.deserializeBytes(bytes);
+                prototype = current;
+            }
+            return current;
+        }
+    }
+}
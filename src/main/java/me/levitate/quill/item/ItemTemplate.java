@@ -0,0 +1,117 @@
+package me.levitate.quill.item;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, precompiled item created by {@link ItemBuilder#compile()}.
+ * <p>
+ * The name and lore are parsed once when compiling, and the finished item is kept as a prototype.
+ * Creating an item clones the prototype and only touches the lines that contain one of the given placeholders.
+ * Placeholders are replaced as literal text after parsing, so they cannot be used inside MiniMessage tags
+ * and their values are never parsed as MiniMessage. Templates can be shared between threads.
+ * </p>
+ */
+public final class ItemTemplate {
+    private final ItemStack prototype;
+    private final String rawName;
+    private final Component name;
+    private final List<String> rawLore;
+    private final List<Component> lore;
+
+    ItemTemplate(ItemStack prototype, String rawName, List<String> rawLore) {
+        this.prototype = prototype.clone();
+        this.rawName = rawName;
+        this.rawLore = rawLore != null ? List.copyOf(rawLore) : Collections.emptyList();
+
+        ItemMeta meta = this.prototype.getItemMeta();
+        this.name = meta != null ? meta.displayName() : null;
+
+        List<Component> parsedLore = meta != null ? meta.lore() : null;
+        this.lore = parsedLore != null ? List.copyOf(parsedLore) : Collections.emptyList();
+    }
+
+    /**
+     * Create a new item from the template without placeholders
+     * @return A new ItemStack
+     */
+    public ItemStack create() {
+        return prototype.clone();
+    }
+
+    /**
+     * Create a new item from the template
+     * @param placeholders Key value pairs, e.g. "%player%", player.getName()
+     * @return A new ItemStack
+     */
+    public ItemStack create(Object... placeholders) {
+        ItemStack item = prototype.clone();
+        if (placeholders == null || placeholders.length < 2) return item;
+
+        boolean replaceName = name != null && containsPlaceholder(rawName, placeholders);
+        boolean replaceLore = false;
+        for (String line : rawLore) {
+            if (containsPlaceholder(line, placeholders)) {
+                replaceLore = true;
+                break;
+            }
+        }
+
+        if (!replaceName && !replaceLore) return item;
+
+        ItemMeta meta = item.getItemMeta();
+        if (replaceName) {
+            meta.displayName(replace(name, placeholders));
+        }
+
+        // Lore lines come from the same list, so their indexes line up with the parsed components.
+        if (replaceLore && rawLore.size() == lore.size()) {
+            List<Component> lines = new ArrayList<>(lore.size());
+            for (int i = 0; i < lore.size(); i++) {
+                lines.add(containsPlaceholder(rawLore.get(i), placeholders) ? replace(lore.get(i), placeholders) : lore.get(i));
+            }
+            meta.lore(lines);
+        }
+
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * Create a new item from the template with a specific amount
+     * @param amount The amount
+     * @param placeholders Key value pairs, e.g. "%player%", player.getName()
+     * @return A new ItemStack
+     */
+    public ItemStack create(int amount, Object... placeholders) {
+        ItemStack item = create(placeholders);
+        item.setAmount(amount);
+        return item;
+    }
+
+    private static boolean containsPlaceholder(String text, Object[] placeholders) {
+        if (text == null) return false;
+
+        for (int i = 0; i < placeholders.length - 1; i += 2) {
+            if (text.contains(String.valueOf(placeholders[i]))) return true;
+        }
+        return false;
+    }
+
+    private static Component replace(Component component, Object[] placeholders) {
+        Component result = component;
+        for (int i = 0; i < placeholders.length - 1; i += 2) {
+            result = result.replaceText(TextReplacementConfig.builder()
+                    .matchLiteral(String.valueOf(placeholders[i]))
+                    .replacement(String.valueOf(placeholders[i + 1]))
+                    .build());
+        }
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package me.levitate.quill.item;
 
 import me.levitate.quill.injection.annotation.Module;
+import org.bukkit.Keyed;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.*;
@@ -52,6 +53,10 @@ public class RecipeBuilder {
         return this;
     }
 
+    String getRecipeId() {
+        return recipeId;
+    }
+
     /**
      * Create a shaped recipe
      * @param pattern Array of 3 strings representing the crafting pattern
@@ -99,46 +104,57 @@ public class RecipeBuilder {
     }
 
     /**
-     * Register all defined recipes
-     * @return List of created recipe keys
+     * Create all defined recipes without registering them, e.g. to pass them to a {@link RecipeRegistry}
+     * @return List of created recipes
      */
-    public List<NamespacedKey> register() {
-        List<NamespacedKey> registeredKeys = new ArrayList<>();
+    public List<Recipe> build() {
+        List<Recipe> recipes = new ArrayList<>();
         String baseId = recipeId != null ? recipeId : UUID.randomUUID().toString();
 
-        // Register shaped recipe
+        // Shaped recipe
         if (shapedPattern != null && shapedIngredients != null) {
-            NamespacedKey key = new NamespacedKey(plugin, baseId + "_shaped");
-            ShapedRecipe recipe = new ShapedRecipe(key, result);
+            ShapedRecipe recipe = new ShapedRecipe(new NamespacedKey(plugin, baseId + "_shaped"), result);
             recipe.shape(shapedPattern);
             shapedIngredients.forEach(recipe::setIngredient);
-            plugin.getServer().addRecipe(recipe, true);
-            registeredKeys.add(key);
+            recipes.add(recipe);
         }
 
-        // Register shapeless recipe
+        // Shapeless recipe
         if (shapelessIngredients != null && !shapelessIngredients.isEmpty()) {
-            NamespacedKey key = new NamespacedKey(plugin, baseId + "_shapeless");
-            ShapelessRecipe recipe = new ShapelessRecipe(key, result);
+            ShapelessRecipe recipe = new ShapelessRecipe(new NamespacedKey(plugin, baseId + "_shapeless"), result);
             shapelessIngredients.forEach(recipe::addIngredient);
-            plugin.getServer().addRecipe(recipe, true);
-            registeredKeys.add(key);
+            recipes.add(recipe);
         }
 
-        // Register furnace recipe
+        // Furnace recipe
         if (furnaceInput != null) {
-            NamespacedKey key = new NamespacedKey(plugin, baseId + "_furnace");
-            FurnaceRecipe recipe = new FurnaceRecipe(
-                    key,
+            recipes.add(new FurnaceRecipe(
+                    new NamespacedKey(plugin, baseId + "_furnace"),
                     result,
                     furnaceInput,
                     furnaceExperience,
                     furnaceCookingTime
-            );
-            plugin.getServer().addRecipe(recipe, true);
-            registeredKeys.add(key);
+            ));
+        }
+
+        return recipes;
+    }
+
+    /**
+     * Register all defined recipes, recipes are sent to the clients once afterward
+     * @return List of created recipe keys
+     */
+    public List<NamespacedKey> register() {
+        List<NamespacedKey> registeredKeys = new ArrayList<>();
+
+        for (Recipe recipe : build()) {
+            plugin.getServer().addRecipe(recipe, false);
+            registeredKeys.add(((Keyed) recipe).getKey());
         }
 
+        if (!registeredKeys.isEmpty()) {
+            plugin.getServer().updateRecipes();
+        }
         return registeredKeys;
     }
 
@@ -148,9 +164,10 @@ public class RecipeBuilder {
     public void unregister() {
         if (recipeId == null) return;
 
-        plugin.getServer().removeRecipe(new NamespacedKey(plugin, recipeId + "_shaped"));
-        plugin.getServer().removeRecipe(new NamespacedKey(plugin, recipeId + "_shapeless"));
-        plugin.getServer().removeRecipe(new NamespacedKey(plugin, recipeId + "_furnace"));
+        plugin.getServer().removeRecipe(new NamespacedKey(plugin, recipeId + "_shaped"), false);
+        plugin.getServer().removeRecipe(new NamespacedKey(plugin, recipeId + "_shapeless"), false);
+        plugin.getServer().removeRecipe(new NamespacedKey(plugin, recipeId + "_furnace"), false);
+        plugin.getServer().updateRecipes();
     }
 
     private RecipeChoice createRecipeChoice(Object ingredient) {
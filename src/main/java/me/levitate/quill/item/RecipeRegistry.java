@@ -0,0 +1,233 @@
+package me.levitate.quill.item;
+
+import me.levitate.quill.injection.annotation.Inject;
+import me.levitate.quill.injection.annotation.Module;
+import me.levitate.quill.injection.annotation.PreDestroy;
+import me.levitate.quill.logger.QuillLogger;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.*;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Registers the recipes of {@link RecipeBuilder}s in batches and keeps an index of them.
+ * <p>
+ * Recipes are added without resending them to clients, and a single {@link org.bukkit.Server#updateRecipes()}
+ * is sent once the batch is done. {@link #reload(Collection)} only touches recipes that were added, removed or changed.
+ * </p>
+ */
+@Module
+public class RecipeRegistry {
+    private final Map<NamespacedKey, Recipe> recipes = new LinkedHashMap<>();
+    private final List<Recipe> pending = new ArrayList<>();
+    private final Map<Material, Set<NamespacedKey>> byResult = new EnumMap<>(Material.class);
+    private final Map<Material, Set<NamespacedKey>> byIngredient = new EnumMap<>(Material.class);
+
+    @Inject
+    private Plugin plugin;
+
+    @Inject
+    private QuillLogger logger;
+
+    @PreDestroy
+    public void shutdown() {
+        unregisterAll();
+    }
+
+    /**
+     * Queue the recipes of a builder, they are registered on the next {@link #flush()}
+     * @param builder The recipe builder, it needs an {@link RecipeBuilder#id(String) id}
+     * @return The registry instance
+     */
+    public RecipeRegistry add(RecipeBuilder builder) {
+        pending.addAll(build(builder));
+        return this;
+    }
+
+    /**
+     * Queue the recipes of multiple builders, they are registered on the next {@link #flush()}
+     * @param builders The recipe builders
+     * @return The registry instance
+     */
+    public RecipeRegistry addAll(Collection<RecipeBuilder> builders) {
+        builders.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Register all queued recipes and resend recipes to clients once
+     * @return The amount of registered recipes
+     */
+    public int flush() {
+        int registered = 0;
+        for (Recipe recipe : pending) {
+            if (addRecipe(recipe)) {
+                registered++;
+            }
+        }
+        pending.clear();
+
+        if (registered > 0) {
+            plugin.getServer().updateRecipes();
+        }
+        return registered;
+    }
+
+    /**
+     * Replace the registered recipes with the recipes of the given builders, e.g. after a config reload.
+     * Unchanged recipes are left alone and clients are only updated if something changed.
+     *
+     * @param builders The recipe builders describing the complete new set of recipes
+     * @return The amount of added, removed or changed recipes
+     */
+    public int reload(Collection<RecipeBuilder> builders) {
+        pending.clear();
+
+        Map<NamespacedKey, Recipe> updated = new LinkedHashMap<>();
+        builders.forEach(builder -> build(builder).forEach(recipe -> updated.put(keyOf(recipe), recipe)));
+
+        int changes = 0;
+        for (Recipe existing : List.copyOf(recipes.values())) {
+            Recipe replacement = updated.get(keyOf(existing));
+            if (replacement == null || !sameRecipe(existing, replacement)) {
+                removeRecipe(keyOf(existing));
+                changes++;
+            }
+        }
+
+        for (Recipe recipe : updated.values()) {
+            if (!recipes.containsKey(keyOf(recipe)) && addRecipe(recipe)) {
+                changes++;
+            }
+        }
+
+        if (changes > 0) {
+            plugin.getServer().updateRecipes();
+        }
+        return changes;
+    }
+
+    /**
+     * Unregister every recipe registered through this registry
+     */
+    public void unregisterAll() {
+        pending.clear();
+        if (recipes.isEmpty()) return;
+
+        List.copyOf(recipes.keySet()).forEach(this::removeRecipe);
+        plugin.getServer().updateRecipes();
+    }
+
+    public Optional<Recipe> getRecipe(NamespacedKey key) {
+        return Optional.ofNullable(recipes.get(key));
+    }
+
+    public Collection<Recipe> getRecipes() {
+        return Collections.unmodifiableCollection(recipes.values());
+    }
+
+    /**
+     * Find registered recipes by the material of their result
+     */
+    public List<Recipe> findByResult(Material material) {
+        return lookup(byResult, material);
+    }
+
+    /**
+     * Find registered recipes that accept the given material as an ingredient
+     */
+    public List<Recipe> findByIngredient(Material material) {
+        return lookup(byIngredient, material);
+    }
+
+    private List<Recipe> lookup(Map<Material, Set<NamespacedKey>> index, Material material) {
+        Set<NamespacedKey> keys = index.get(material);
+        if (keys == null) return Collections.emptyList();
+
+        return keys.stream()
+                .map(recipes::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // A random key would make every reload replace the recipe.
+    private static List<Recipe> build(RecipeBuilder builder) {
+        if (builder.getRecipeId() == null) {
+            throw new IllegalArgumentException("Recipes added to the registry need an id");
+        }
+        return builder.build();
+    }
+
+    private boolean addRecipe(Recipe recipe) {
+        NamespacedKey key = keyOf(recipe);
+        if (recipes.containsKey(key) || !plugin.getServer().addRecipe(recipe, false)) {
+            logger.warn("Failed to register recipe " + key + ", a recipe with that key already exists");
+            return false;
+        }
+
+        recipes.put(key, recipe);
+        byResult.computeIfAbsent(recipe.getResult().getType(), k -> new LinkedHashSet<>()).add(key);
+        ingredientsOf(recipe).forEach(material ->
+                byIngredient.computeIfAbsent(material, k -> new LinkedHashSet<>()).add(key));
+        return true;
+    }
+
+    private void removeRecipe(NamespacedKey key) {
+        Recipe recipe = recipes.remove(key);
+        if (recipe == null) return;
+
+        plugin.getServer().removeRecipe(key, false);
+        byResult.getOrDefault(recipe.getResult().getType(), Collections.emptySet()).remove(key);
+        ingredientsOf(recipe).forEach(material ->
+                byIngredient.getOrDefault(material, Collections.emptySet()).remove(key));
+    }
+
+    private static NamespacedKey keyOf(Recipe recipe) {
+        return ((Keyed) recipe).getKey();
+    }
+
+    private static Set<Material> ingredientsOf(Recipe recipe) {
+        List<RecipeChoice> choices = new ArrayList<>();
+        if (recipe instanceof ShapedRecipe shaped) {
+            choices.addAll(shaped.getChoiceMap().values());
+        } else if (recipe instanceof ShapelessRecipe shapeless) {
+            choices.addAll(shapeless.getChoiceList());
+        } else if (recipe instanceof CookingRecipe<?> cooking) {
+            choices.add(cooking.getInputChoice());
+        }
+
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (RecipeChoice choice : choices) {
+            if (choice instanceof RecipeChoice.MaterialChoice materialChoice) {
+                materials.addAll(materialChoice.getChoices());
+            } else if (choice instanceof RecipeChoice.ExactChoice exactChoice) {
+                exactChoice.getChoices().forEach(item -> materials.add(item.getType()));
+            }
+        }
+        return materials;
+    }
+
+    private static boolean sameRecipe(Recipe first, Recipe second) {
+        if (first.getClass() != second.getClass() || !first.getResult().equals(second.getResult())) {
+            return false;
+        }
+
+        if (first instanceof ShapedRecipe shaped && second instanceof ShapedRecipe other) {
+            return Arrays.equals(shaped.getShape(), other.getShape())
+                    && shaped.getChoiceMap().equals(other.getChoiceMap());
+        }
+        if (first instanceof ShapelessRecipe shapeless && second instanceof ShapelessRecipe other) {
+            return shapeless.getChoiceList().equals(other.getChoiceList());
+        }
+        if (first instanceof CookingRecipe<?> cooking && second instanceof CookingRecipe<?> other) {
+            return Objects.equals(cooking.getInputChoice(), other.getInputChoice())
+                    && cooking.getExperience() == other.getExperience()
+                    && cooking.getCookingTime() == other.getCookingTime();
+        }
+        return false;
+    }
+}
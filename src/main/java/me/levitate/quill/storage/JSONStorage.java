@@ -9,11 +9,15 @@ import me.levitate.quill.storage.adapters.bukkit.LocationAdapter;
 import me.levitate.quill.storage.adapters.bukkit.WorldAdapter;
 import me.levitate.quill.storage.adapters.common.BooleanAdapter;
 import me.levitate.quill.storage.adapters.common.UUIDAdapter;
+import me.levitate.quill.storage.backup.BackupPolicy;
+import me.levitate.quill.storage.backup.StorageBackup;
+import me.levitate.quill.utils.common.FileHelper;
+import org.bukkit.plugin.Plugin;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.function.Consumer;
@@ -30,18 +34,17 @@ public class JSONStorage<K, V> {
     private final Moshi moshi;
     private final JsonAdapter<Map<K, V>> jsonAdapter;
     private final File file;
+    private final StorageBackup backup;
 
     protected JSONStorage(Builder<K, V> builder) {
         this.storage = new HashMap<>();
         this.file = new File(builder.dataFolder, builder.fileName);
+        this.backup = builder.backupPolicy != null
+                ? new StorageBackup(file, builder.backupPolicy, builder.backupPlugin.getLogger())
+                : null;
 
         // Build Moshi instance with all registered adapters
-        Moshi.Builder moshiBuilder = new Moshi.Builder()
-                .add(new LocationAdapter())
-                .add(new WorldAdapter())
-                .add(new ItemStackAdapter())
-                .add(new UUIDAdapter())
-                .add(new BooleanAdapter());
+        Moshi.Builder moshiBuilder = createMoshiBuilder();
 
         // Add custom adapters
         builder.customAdapters.forEach(adapter ->
@@ -66,19 +69,44 @@ public class JSONStorage<K, V> {
         return new Builder<>();
     }
 
+    /**
+     * Create a Moshi builder with all the default Quill adapters registered.
+     */
+    protected static Moshi.Builder createMoshiBuilder() {
+        return new Moshi.Builder()
+                .add(new LocationAdapter())
+                .add(new WorldAdapter())
+                .add(new ItemStackAdapter())
+                .add(new UUIDAdapter())
+                .add(new BooleanAdapter());
+    }
+
     public void save() {
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.write(jsonAdapter.toJson(storage));
+        try {
+            FileHelper.writeAtomically(file.toPath(), jsonAdapter.toJson(storage).getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
             throw new RuntimeException("Failed to write data to json file: " + file, e);
         }
+
+        if (backup != null) {
+            backup.schedule();
+        }
+    }
+
+    /**
+     * Stop the background backups of this storage, call it when the owning plugin disables
+     */
+    public void close() {
+        if (backup != null) {
+            backup.close();
+        }
     }
 
     public void load() {
         if (!file.exists()) return;
 
         try {
-            String content = new String(Files.readAllBytes(file.toPath()));
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
             Map<K, V> loadedMap = jsonAdapter.fromJson(content);
             if (loadedMap != null) {
                 storage.clear();
@@ -130,6 +158,8 @@ public class JSONStorage<K, V> {
         private String fileName;
         private Class<K> keyClass;
         private Class<V> valueClass;
+        private BackupPolicy backupPolicy;
+        private Plugin backupPlugin;
 
         public Builder<K, V> dataFolder(File dataFolder) {
             this.dataFolder = dataFolder;
@@ -156,6 +186,17 @@ public class JSONStorage<K, V> {
             return this;
         }
 
+        /**
+         * Keep rotating backups of the data file, written in the background after every save
+         * @param plugin The plugin owning the storage, failed backups are logged to its logger
+         * @param backupPolicy The backup policy
+         */
+        public Builder<K, V> backups(Plugin plugin, BackupPolicy backupPolicy) {
+            this.backupPlugin = plugin;
+            this.backupPolicy = backupPolicy;
+            return this;
+        }
+
         public JSONStorage<K, V> build() {
             validate();
             return new JSONStorage<>(this);
@@ -166,6 +207,7 @@ public class JSONStorage<K, V> {
             if (fileName == null) throw new IllegalStateException("File name is required");
             if (keyClass == null) throw new IllegalStateException("Key class is required");
             if (valueClass == null) throw new IllegalStateException("Value class is required");
+            if (backupPolicy != null && backupPlugin == null) throw new IllegalStateException("Backup plugin is required");
         }
     }
 
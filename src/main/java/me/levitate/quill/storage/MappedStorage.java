@@ -0,0 +1,323 @@
+package me.levitate.quill.storage;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import me.levitate.quill.utils.common.FileHelper;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Read-only storage for large, read-mostly datasets such as item catalogs or loot tables.
+ * <p>
+ * The data is written once into an index file holding an open-addressing hash table followed by the records.
+ * The file is then memory mapped, so opening it costs the same regardless of its size and lookups only
+ * decode the single record they hit. Values are kept as JSON and decoded with the same adapters as {@link JSONStorage}.
+ * </p>
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class MappedStorage<K, V> implements AutoCloseable {
+    private static final int MAGIC = 0x514D5331; // "QMS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 8;
+
+    private final File file;
+    private final JsonAdapter<K> keyAdapter;
+    private final JsonAdapter<V> valueAdapter;
+    private volatile Index index;
+
+    protected MappedStorage(Builder<K, V> builder) {
+        this.file = new File(builder.dataFolder, builder.fileName);
+
+        Moshi.Builder moshiBuilder = JSONStorage.createMoshiBuilder();
+        builder.customAdapters.forEach((type, adapter) -> moshiBuilder.add(type, adapter));
+        Moshi moshi = moshiBuilder.build();
+
+        this.keyAdapter = moshi.adapter(builder.keyClass);
+        this.valueAdapter = moshi.adapter(builder.valueClass);
+
+        if (!builder.dataFolder.exists() && !builder.dataFolder.mkdirs()) {
+            throw new RuntimeException("Could not create data folder: " + builder.dataFolder);
+        }
+
+        if (file.exists()) {
+            this.index = map(file.toPath());
+        } else if (builder.source != null) {
+            rebuild(builder.source.get());
+        } else {
+            throw new RuntimeException("Index file does not exist and no source was given: " + file);
+        }
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Get a value by its key, only the matching record is decoded
+     * @param key The key
+     * @return Optional containing the value if present
+     */
+    public Optional<V> get(K key) {
+        ByteBuffer raw = find(key);
+        if (raw == null) return Optional.empty();
+
+        try {
+            return Optional.ofNullable(valueAdapter.fromJson(StandardCharsets.UTF_8.decode(raw).toString()));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode value for key " + key + " in " + file, e);
+        }
+    }
+
+    /**
+     * Get the encoded JSON of a value without decoding it
+     * @param key The key
+     * @return Optional containing a read-only slice of the mapped file
+     */
+    public Optional<ByteBuffer> getRaw(K key) {
+        return Optional.ofNullable(find(key));
+    }
+
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    public int size() {
+        return requireOpen().size;
+    }
+
+    /**
+     * Decode and visit every entry in the storage
+     * @param consumer The consumer
+     */
+    public void forEach(BiConsumer<K, V> consumer) {
+        Index current = requireOpen();
+        ByteBuffer buffer = current.buffer;
+        int position = HEADER_SIZE + current.slotCount * SLOT_SIZE;
+
+        try {
+            for (int i = 0; i < current.size; i++) {
+                int keyLength = buffer.getInt(position);
+                ByteBuffer keySlice = buffer.slice(position + 4, keyLength);
+                position += 4 + keyLength;
+
+                int valueLength = buffer.getInt(position);
+                ByteBuffer valueSlice = buffer.slice(position + 4, valueLength);
+                position += 4 + valueLength;
+
+                consumer.accept(
+                        keyAdapter.fromJson(StandardCharsets.UTF_8.decode(keySlice).toString()),
+                        valueAdapter.fromJson(StandardCharsets.UTF_8.decode(valueSlice).toString())
+                );
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode entries in " + file, e);
+        }
+    }
+
+    /**
+     * Rewrite the index file from the given data and map the new file
+     * @param data The complete data set
+     */
+    public synchronized void rebuild(Map<K, V> data) {
+        int slotCount = Integer.highestOneBit(Math.max(16, data.size() * 2 - 1)) << 1;
+        int[] slotHashes = new int[slotCount];
+        int[] slotOffsets = new int[slotCount];
+        List<byte[]> records = new ArrayList<>(data.size() * 2);
+
+        long offset = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        for (Map.Entry<K, V> entry : data.entrySet()) {
+            byte[] keyBytes = encodeKey(entry.getKey());
+            byte[] valueBytes = valueAdapter.toJson(entry.getValue()).getBytes(StandardCharsets.UTF_8);
+
+            int hash = hash(keyBytes);
+            int slot = hash & (slotCount - 1);
+            while (slotOffsets[slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+
+            slotHashes[slot] = hash;
+            slotOffsets[slot] = (int) offset;
+            records.add(keyBytes);
+            records.add(valueBytes);
+
+            offset += 8L + keyBytes.length + valueBytes.length;
+            if (offset > Integer.MAX_VALUE) {
+                throw new RuntimeException("Data set is too large to be mapped: " + file);
+            }
+        }
+
+        Path target = file.toPath();
+        try {
+            FileHelper.writeAtomically(target, output -> {
+                DataOutputStream out = new DataOutputStream(output);
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(slotCount);
+                out.writeInt(data.size());
+
+                for (int i = 0; i < slotCount; i++) {
+                    out.writeInt(slotHashes[i]);
+                    out.writeInt(slotOffsets[i]);
+                }
+
+                for (byte[] bytes : records) {
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write index file: " + file, e);
+        }
+
+        this.index = map(target);
+    }
+
+    /**
+     * Release the mapping, the memory is returned once the buffer is garbage collected
+     */
+    @Override
+    public void close() {
+        this.index = null;
+    }
+
+    private ByteBuffer find(K key) {
+        Index current = requireOpen();
+        ByteBuffer buffer = current.buffer;
+        byte[] keyBytes = encodeKey(key);
+        int hash = hash(keyBytes);
+        int mask = current.slotCount - 1;
+
+        for (int i = 0; i < current.slotCount; i++) {
+            int slotPosition = HEADER_SIZE + ((hash + i) & mask) * SLOT_SIZE;
+            int offset = buffer.getInt(slotPosition + 4);
+            if (offset == 0) return null;
+            if (buffer.getInt(slotPosition) != hash) continue;
+
+            int keyLength = buffer.getInt(offset);
+            if (keyLength == keyBytes.length && matches(buffer, offset + 4, keyBytes)) {
+                int valueOffset = offset + 4 + keyLength;
+                return buffer.slice(valueOffset + 4, buffer.getInt(valueOffset));
+            }
+        }
+
+        return null;
+    }
+
+    private Index requireOpen() {
+        Index current = index;
+        if (current == null) {
+            throw new IllegalStateException("Storage is closed: " + file);
+        }
+        return current;
+    }
+
+    private byte[] encodeKey(K key) {
+        return keyAdapter.toJson(Objects.requireNonNull(key, "Key cannot be null")).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean matches(ByteBuffer buffer, int position, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(position + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    // FNV-1a, stable across JVMs unlike String#hashCode of arbitrary encodings.
+    private static int hash(byte[] bytes) {
+        int hash = 0x811C9DC5;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    private static Index map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new RuntimeException("Not a valid index file: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new RuntimeException("Unsupported index file version " + buffer.getInt(4) + ": " + path);
+            }
+
+            return new Index(buffer, buffer.getInt(8), buffer.getInt(12));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to map index file: " + path, e);
+        }
+    }
+
+    private record Index(ByteBuffer buffer, int slotCount, int size) {
+    }
+
+    public static class Builder<K, V> {
+        private final Map<Type, JsonAdapter<?>> customAdapters = new LinkedHashMap<>();
+        private File dataFolder;
+        private String fileName;
+        private Class<K> keyClass;
+        private Class<V> valueClass;
+        private Supplier<Map<K, V>> source;
+
+        public Builder<K, V> dataFolder(File dataFolder) {
+            this.dataFolder = dataFolder;
+            return this;
+        }
+
+        public Builder<K, V> fileName(String fileName) {
+            this.fileName = fileName;
+            return this;
+        }
+
+        public Builder<K, V> keyClass(Class<K> keyClass) {
+            this.keyClass = keyClass;
+            return this;
+        }
+
+        public Builder<K, V> valueClass(Class<V> valueClass) {
+            this.valueClass = valueClass;
+            return this;
+        }
+
+        public <T> Builder<K, V> addAdapter(Type type, JsonAdapter<T> adapter) {
+            customAdapters.put(type, adapter);
+            return this;
+        }
+
+        /**
+         * Set the data used to build the index file when it does not exist yet
+         */
+        public Builder<K, V> source(Supplier<Map<K, V>> source) {
+            this.source = source;
+            return this;
+        }
+
+        public MappedStorage<K, V> build() {
+            validate();
+            return new MappedStorage<>(this);
+        }
+
+        private void validate() {
+            if (dataFolder == null) throw new IllegalStateException("Data folder is required");
+            if (fileName == null) throw new IllegalStateException("File name is required");
+            if (keyClass == null) throw new IllegalStateException("Key class is required");
+            if (valueClass == null) throw new IllegalStateException("Value class is required");
+        }
+    }
+}
@@ -3,21 +3,28 @@ package me.levitate.quill.storage.adapters.bukkit;
 import com.squareup.moshi.JsonAdapter;
 import com.squareup.moshi.JsonReader;
 import com.squareup.moshi.JsonWriter;
+import me.levitate.quill.item.ItemSerializer;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
-import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Base64;
 
+/**
+ * Stores items as Base64 encoded binary item data.
+ * Values written by older versions, which used Java object serialization, are still read.
+ */
 public class ItemStackAdapter extends JsonAdapter<ItemStack> {
     @Override
     public ItemStack fromJson(JsonReader reader) throws IOException {
-        String base64 = reader.nextString();
+        byte[] data = Base64.getMimeDecoder().decode(reader.nextString());
+        if (ItemSerializer.isBinary(data)) {
+            return ItemSerializer.itemStackFromBytes(data);
+        }
+
         try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64Coder.decodeLines(base64));
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(data);
             BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
             ItemStack item = (ItemStack) dataInput.readObject();
             dataInput.close();
@@ -30,11 +37,7 @@ public class ItemStackAdapter extends JsonAdapter<ItemStack> {
     @Override
     public void toJson(JsonWriter writer, ItemStack item) throws IOException {
         try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
-            dataOutput.writeObject(item);
-            dataOutput.close();
-            writer.value(Base64Coder.encodeLines(outputStream.toByteArray()));
+            writer.value(Base64.getEncoder().encodeToString(ItemSerializer.itemStackToBytes(item)));
         } catch (Exception e) {
             throw new IOException("Failed to serialize ItemStack", e);
         }
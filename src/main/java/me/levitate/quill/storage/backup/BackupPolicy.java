@@ -0,0 +1,39 @@
+package me.levitate.quill.storage.backup;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Describes how many backups of a storage file are kept and how fast they may be written.
+ */
+@Builder
+@Getter
+public class BackupPolicy {
+    /**
+     * Amount of recent generations to keep, a new generation is only created when the file changed.
+     */
+    @Builder.Default
+    private final int generations = 5;
+
+    /**
+     * Amount of daily snapshots to keep.
+     */
+    @Builder.Default
+    private final int dailySnapshots = 7;
+
+    /**
+     * Maximum bytes per second written when a backup has to be copied, zero or less means unlimited.
+     */
+    @Builder.Default
+    private final long maxBytesPerSecond = 4L * 1024 * 1024;
+
+    /**
+     * Directory, relative to the storage's data folder, the backups are written to.
+     */
+    @Builder.Default
+    private final String directory = "backups";
+
+    public static BackupPolicy defaultPolicy() {
+        return BackupPolicy.builder().build();
+    }
+}
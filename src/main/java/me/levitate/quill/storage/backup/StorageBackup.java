@@ -0,0 +1,174 @@
+package me.levitate.quill.storage.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes rotating backups of a single storage file on a background I/O thread owned by the storage.
+ * The thread stops once it is idle, and for good once the storage is closed.
+ * <p>
+ * Generations are hard links to the live file whenever possible. This is safe because storages replace
+ * their file atomically instead of writing into it, so a link always points at a complete file and costs
+ * no extra disk space. Daily snapshots link to a generation in the same way. Copies are only made when the
+ * file system does not support links, and those are throttled by {@link BackupPolicy#getMaxBytesPerSecond()}.
+ * </p>
+ */
+public class StorageBackup {
+    private static final DateTimeFormatter GENERATION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String GENERATION_PREFIX = "gen-";
+    private static final String DAILY_PREFIX = "daily-";
+
+    private static final long IDLE_SECONDS = 30;
+
+    private final Path source;
+    private final Path directory;
+    private final String extension;
+    private final BackupPolicy policy;
+    private final Logger logger;
+    private final ThreadPoolExecutor executor;
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    public StorageBackup(File file, BackupPolicy policy, Logger logger) {
+        this.source = file.toPath();
+        this.directory = file.toPath().resolveSibling(policy.getDirectory()).resolve(file.getName());
+        this.policy = policy;
+        this.logger = logger;
+        this.executor = new ThreadPoolExecutor(0, 1, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Quill-Storage-Backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        this.extension = dot == -1 ? "" : name.substring(dot);
+    }
+
+    /**
+     * Queue a backup of the current file, does nothing if one is already queued
+     */
+    public void schedule() {
+        if (executor.isShutdown()) return;
+
+        if (pending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                pending.set(false);
+                try {
+                    run();
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Failed to back up storage file: " + source, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop accepting backups and wait a few seconds for a queued backup to finish
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        if (!Files.exists(source)) return;
+        Files.createDirectories(directory);
+
+        List<Path> generations = list(GENERATION_PREFIX);
+        Path latest = generations.isEmpty() ? null : generations.get(generations.size() - 1);
+
+        // Copy-on-change, an unchanged file does not produce a new generation.
+        if (latest == null || (!Files.isSameFile(latest, source) && Files.mismatch(latest, source) != -1L)) {
+            Path target = directory.resolve(GENERATION_PREFIX + GENERATION_FORMAT.format(LocalDateTime.now()) + extension);
+            if (!Files.exists(target)) {
+                linkOrCopy(source, target);
+                generations.add(target);
+                latest = target;
+            }
+        }
+
+        Path daily = directory.resolve(DAILY_PREFIX + LocalDate.now() + extension);
+        if (latest != null && !Files.exists(daily)) {
+            linkOrCopy(latest, daily);
+        }
+
+        prune(generations, policy.getGenerations());
+        prune(list(DAILY_PREFIX), policy.getDailySnapshots());
+    }
+
+    private List<Path> list(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> name.startsWith(prefix) && !name.endsWith(".tmp"))
+                    .sorted()
+                    .map(directory::resolve)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private void prune(List<Path> backups, int keep) throws IOException {
+        for (int i = 0; i < backups.size() - Math.max(keep, 0); i++) {
+            Files.deleteIfExists(backups.get(i));
+        }
+    }
+
+    private void linkOrCopy(Path from, Path to) throws IOException, InterruptedException {
+        try {
+            Files.createLink(to, from);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            throttledCopy(from, to);
+        }
+    }
+
+    private void throttledCopy(Path from, Path to) throws IOException, InterruptedException {
+        Path temp = to.resolveSibling(to.getFileName() + ".tmp");
+        long limit = policy.getMaxBytesPerSecond();
+
+        try (InputStream in = Files.newInputStream(from); OutputStream out = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[64 * 1024];
+            long start = System.nanoTime();
+            long written = 0;
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                written += read;
+
+                if (limit > 0) {
+                    long expected = TimeUnit.SECONDS.toNanos(written) / limit;
+                    long elapsed = System.nanoTime() - start;
+                    if (expected > elapsed) {
+                        TimeUnit.NANOSECONDS.sleep(expected - elapsed);
+                    }
+                }
+            }
+        }
+
+        Files.move(temp, to, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
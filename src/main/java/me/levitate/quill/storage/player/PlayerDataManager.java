@@ -0,0 +1,137 @@
+package me.levitate.quill.storage.player;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.levitate.quill.cache.CacheManager;
+import me.levitate.quill.event.EventManager;
+import me.levitate.quill.injection.annotation.Inject;
+import me.levitate.quill.injection.annotation.Module;
+import me.levitate.quill.injection.annotation.PostConstruct;
+import me.levitate.quill.injection.annotation.PreDestroy;
+import me.levitate.quill.logger.QuillLogger;
+import me.levitate.quill.utils.common.TaskScheduler;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Manages the lifecycle of per-player data stores.
+ * Records are loaded on the async login thread so joins never block the main thread on I/O.
+ */
+@Module
+public class PlayerDataManager {
+    private static final Component LOAD_FAILED_MESSAGE = Component.text("Failed to load your data, please try again.");
+
+    private final Map<String, PlayerDataStore<?>> stores = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    private EventManager eventManager;
+
+    @Inject
+    @Getter(AccessLevel.PACKAGE)
+    private CacheManager cacheManager;
+
+    @Inject
+    @Getter(AccessLevel.PACKAGE)
+    private TaskScheduler taskScheduler;
+
+    @Inject
+    @Getter(AccessLevel.PACKAGE)
+    private QuillLogger logger;
+
+    @PostConstruct
+    private void init() {
+        Bukkit.getOnlinePlayers().forEach(player -> online.add(player.getUniqueId()));
+
+        eventManager.listen(AsyncPlayerPreLoginEvent.class)
+                .highest()
+                .filter(event -> event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED)
+                .handle(this::handlePreLogin);
+
+        eventManager.listen(PlayerJoinEvent.class)
+                .lowest()
+                .handle(event -> {
+                    online.add(event.getPlayer().getUniqueId());
+                    stores.values().forEach(store -> store.handleJoin(event.getPlayer()));
+                });
+
+        eventManager.listen(PlayerQuitEvent.class)
+                .monitor()
+                .handle(event -> {
+                    UUID uuid = event.getPlayer().getUniqueId();
+                    online.remove(uuid);
+                    stores.values().forEach(store -> store.handleQuit(uuid));
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stores.values().forEach(store -> {
+            store.close();
+            cacheManager.removeCache("player-data:" + store.getName());
+        });
+        stores.clear();
+        online.clear();
+    }
+
+    /**
+     * Start building a new player data store
+     * @param name Unique name of the store
+     * @return A new builder
+     */
+    public <V> PlayerDataStore.Builder<V> store(String name) {
+        return new PlayerDataStore.Builder<>(this, name);
+    }
+
+    /**
+     * Get an existing store by name
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Optional<PlayerDataStore<V>> getStore(String name) {
+        return Optional.ofNullable((PlayerDataStore<V>) stores.get(name));
+    }
+
+    /**
+     * Save every dirty record of every store on the calling thread
+     */
+    public void saveAll() {
+        stores.values().forEach(PlayerDataStore::saveAll);
+    }
+
+    boolean isOnline(UUID uuid) {
+        return online.contains(uuid);
+    }
+
+    void register(PlayerDataStore<?> store) {
+        if (stores.putIfAbsent(store.getName(), store) != null) {
+            throw new IllegalStateException("A player data store named " + store.getName() + " already exists");
+        }
+    }
+
+    private void handlePreLogin(AsyncPlayerPreLoginEvent event) {
+        UUID uuid = event.getUniqueId();
+
+        for (PlayerDataStore<?> store : stores.values()) {
+            try {
+                store.prefetch(uuid);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to prefetch " + store.getName() + " data for " + event.getName(), e);
+                event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, LOAD_FAILED_MESSAGE);
+                break;
+            }
+        }
+
+        // If the login is denied after us the player never joins, so let the records expire on their own.
+        stores.values().forEach(store -> store.scheduleEviction(uuid));
+    }
+}
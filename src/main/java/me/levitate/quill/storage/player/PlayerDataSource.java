@@ -0,0 +1,93 @@
+package me.levitate.quill.storage.player;
+
+import me.levitate.quill.storage.JSONStorage;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Backend used by a {@link PlayerDataStore} to read and write player records.
+ * All methods are only ever called off the main thread.
+ *
+ * @param <V> Value
+ */
+public interface PlayerDataSource<V> {
+    /**
+     * Load the record of a player
+     * @param uuid The player's unique id
+     * @return Optional containing the record if one exists
+     */
+    Optional<V> load(UUID uuid);
+
+    /**
+     * Persist the record of a player. The record is locked while this runs and may change as soon as it returns,
+     * sources that keep it around (e.g. to write it later in {@link #flush()}) have to keep a copy.
+     *
+     * @param uuid The player's unique id
+     * @param value The record
+     */
+    void save(UUID uuid, V value);
+
+    /**
+     * Write saved records that are still buffered to the backend.
+     * Called by the store after a batch of saves, does nothing by default.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Create a source backed by a {@link JSONStorage}.
+     * The storage is loaded once here, saves only update the map and the file is rewritten on {@link #flush()}.
+     *
+     * @param storage The storage
+     * @return A new PlayerDataSource
+     */
+    static <V> PlayerDataSource<V> json(JSONStorage<UUID, V> storage) {
+        synchronized (storage) {
+            storage.load();
+        }
+
+        return new PlayerDataSource<>() {
+            private boolean dirty;
+
+            @Override
+            public Optional<V> load(UUID uuid) {
+                Optional<V> value;
+                synchronized (storage) {
+                    value = storage.get(uuid);
+                }
+                return value.map(record -> copy(uuid, record));
+            }
+
+            @Override
+            public void save(UUID uuid, V value) {
+                V copy = copy(uuid, value);
+                synchronized (storage) {
+                    storage.put(uuid, copy);
+                    dirty = true;
+                }
+            }
+
+            @Override
+            public void flush() {
+                synchronized (storage) {
+                    if (!dirty) return;
+
+                    storage.save();
+                    dirty = false;
+                }
+            }
+
+            // The storage never shares a record with the store, which keeps changing it until the next flush.
+            private V copy(UUID uuid, V value) {
+                try {
+                    return storage.getJsonAdapter().fromJson(storage.getJsonAdapter().toJson(Map.of(uuid, value))).get(uuid);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to copy record of " + uuid, e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,335 @@
+package me.levitate.quill.storage.player;
+
+import lombok.Getter;
+import me.levitate.quill.cache.Cache;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Holds the records of online (and recently online) players for a single {@link PlayerDataSource}.
+ * Records are prefetched while the player is logging in, handed to the main thread on join,
+ * written back asynchronously on quit and evicted once the grace period is over.
+ *
+ * @param <V> Value
+ */
+public class PlayerDataStore<V> {
+    private static final long FLUSH_DELAY_TICKS = 20L * 5;
+    private static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    @Getter
+    private final String name;
+    private final PlayerDataManager manager;
+    private final PlayerDataSource<V> source;
+    private final Function<UUID, V> defaultValue;
+    private final BiConsumer<Player, V> joinHandler;
+    private final long evictAfterTicks;
+    private final int maximumSize;
+    private final Cache<UUID, V> cache;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> pendingLogins = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private PlayerDataStore(Builder<V> builder, Cache<UUID, V> cache) {
+        this.name = builder.name;
+        this.manager = builder.manager;
+        this.source = builder.source;
+        this.defaultValue = builder.defaultValue;
+        this.joinHandler = builder.joinHandler;
+        this.evictAfterTicks = builder.evictAfterTicks;
+        this.maximumSize = builder.maximumSize;
+        this.cache = cache;
+    }
+
+    /**
+     * Get the loaded record of a player
+     * @param uuid The player's unique id
+     * @return Optional containing the record if it is loaded
+     */
+    public Optional<V> get(UUID uuid) {
+        return cache.get(uuid);
+    }
+
+    /**
+     * Get the loaded record of a player
+     * @param player The player
+     * @return Optional containing the record if it is loaded
+     */
+    public Optional<V> get(Player player) {
+        return get(player.getUniqueId());
+    }
+
+    /**
+     * Check if the record of a player is loaded
+     * @param uuid The player's unique id
+     * @return true if the record is loaded
+     */
+    public boolean isLoaded(UUID uuid) {
+        return cache.containsKey(uuid);
+    }
+
+    /**
+     * Modify a loaded record and mark it as dirty.
+     * Records are written back from other threads, so changes must be made through here to never be saved halfway.
+     *
+     * @param uuid The player's unique id
+     * @param consumer The modification
+     */
+    public void update(UUID uuid, Consumer<V> consumer) {
+        cache.get(uuid).ifPresent(value -> {
+            // Locks the record against a concurrent writeBack(), see PlayerDataSource#save.
+            synchronized (value) {
+                consumer.accept(value);
+            }
+            dirty.add(uuid);
+        });
+    }
+
+    /**
+     * Mark a record as changed so it is written back on quit or eviction
+     * @param uuid The player's unique id
+     */
+    public void markDirty(UUID uuid) {
+        if (cache.containsKey(uuid)) {
+            dirty.add(uuid);
+        }
+    }
+
+    /**
+     * Write a dirty record back to the source asynchronously
+     * @param uuid The player's unique id
+     */
+    public void save(UUID uuid) {
+        if (dirty.contains(uuid)) {
+            manager.getTaskScheduler().runAsync(() -> {
+                writeBack(uuid);
+                scheduleFlush();
+            });
+        }
+    }
+
+    /**
+     * Write every dirty record back to the source on the calling thread
+     */
+    public void saveAll() {
+        Set.copyOf(dirty).forEach(this::writeBack);
+        flush();
+    }
+
+    void prefetch(UUID uuid) {
+        if (cache.containsKey(uuid)) return;
+
+        // Keep the record out of trim() until the player joins or the login times out.
+        pendingLogins.put(uuid, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(evictAfterTicks * 50));
+        cache.put(uuid, loadValue(uuid));
+        trim();
+    }
+
+    void handleJoin(Player player) {
+        UUID uuid = player.getUniqueId();
+        pendingLogins.remove(uuid);
+
+        Optional<V> loaded = cache.get(uuid);
+        if (loaded.isPresent()) {
+            acceptJoin(player, loaded.get());
+            return;
+        }
+
+        // The record was not prefetched (e.g. the store was created after login), load it off the main thread.
+        manager.getTaskScheduler().runAsync(() -> {
+            try {
+                prefetch(uuid);
+            } catch (Exception e) {
+                manager.getLogger().log(Level.SEVERE, "Failed to load " + name + " data for " + uuid, e);
+                return;
+            }
+
+            manager.getTaskScheduler().runSync(() -> {
+                if (player.isOnline()) {
+                    cache.get(uuid).ifPresent(value -> acceptJoin(player, value));
+                }
+            });
+        });
+    }
+
+    void handleQuit(UUID uuid) {
+        save(uuid);
+        scheduleEviction(uuid);
+    }
+
+    void scheduleEviction(UUID uuid) {
+        manager.getTaskScheduler().runLaterAsync(() -> evict(uuid), evictAfterTicks);
+    }
+
+    void close() {
+        saveAll();
+        cache.clear();
+        dirty.clear();
+        pendingLogins.clear();
+    }
+
+    private V loadValue(UUID uuid) {
+        return source.load(uuid).orElseGet(() -> defaultValue.apply(uuid));
+    }
+
+    private void acceptJoin(Player player, V value) {
+        if (joinHandler == null) return;
+
+        try {
+            joinHandler.accept(player, value);
+        } catch (Exception e) {
+            manager.getLogger().log(Level.SEVERE, "Error in " + name + " join handler for " + player.getName(), e);
+        }
+    }
+
+    private void evict(UUID uuid) {
+        if (manager.isOnline(uuid)) return;
+
+        writeBack(uuid);
+        scheduleFlush();
+        if (!dirty.contains(uuid)) {
+            cache.remove(uuid);
+            pendingLogins.remove(uuid);
+        }
+    }
+
+    private void trim() {
+        if (maximumSize <= 0 || cache.size() <= maximumSize) return;
+
+        for (UUID uuid : cache.keys()) {
+            if (cache.size() <= maximumSize) break;
+            if (!isPendingLogin(uuid)) {
+                evict(uuid);
+            }
+        }
+    }
+
+    private boolean isPendingLogin(UUID uuid) {
+        Long deadline = pendingLogins.get(uuid);
+        if (deadline == null) return false;
+        if (System.nanoTime() - deadline < 0) return true;
+
+        pendingLogins.remove(uuid, deadline);
+        return false;
+    }
+
+    private void scheduleFlush() {
+        // Saves within the delay are written to the backend together.
+        if (flushScheduled.compareAndSet(false, true)) {
+            manager.getTaskScheduler().runLaterAsync(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, FLUSH_DELAY_TICKS);
+        }
+    }
+
+    private void flush() {
+        try {
+            source.flush();
+        } catch (Exception e) {
+            manager.getLogger().log(Level.SEVERE, "Failed to flush " + name + " data", e);
+        }
+    }
+
+    private void writeBack(UUID uuid) {
+        if (!dirty.remove(uuid)) return;
+
+        Optional<V> value = cache.get(uuid);
+        if (value.isEmpty()) return;
+
+        try {
+            synchronized (value.get()) {
+                source.save(uuid, value.get());
+            }
+        } catch (Exception e) {
+            dirty.add(uuid);
+            manager.getLogger().log(Level.SEVERE, "Failed to save " + name + " data for " + uuid, e);
+        }
+    }
+
+    public static class Builder<V> {
+        private final PlayerDataManager manager;
+        private final String name;
+        private PlayerDataSource<V> source;
+        private Function<UUID, V> defaultValue;
+        private BiConsumer<Player, V> joinHandler;
+        private long evictAfterTicks = 20L * 60;
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+        Builder(PlayerDataManager manager, String name) {
+            this.manager = manager;
+            this.name = name;
+        }
+
+        /**
+         * Set the backend the records are read from and written to
+         */
+        public Builder<V> source(PlayerDataSource<V> source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * Set the factory used for players without a record
+         */
+        public Builder<V> defaultValue(Function<UUID, V> defaultValue) {
+            this.defaultValue = defaultValue;
+            return this;
+        }
+
+        /**
+         * Set the handler that receives the record on the main thread when the player joins
+         */
+        public Builder<V> onJoin(BiConsumer<Player, V> joinHandler) {
+            this.joinHandler = joinHandler;
+            return this;
+        }
+
+        /**
+         * Set how long a record stays cached after the player quits
+         */
+        public Builder<V> evictAfter(long ticks) {
+            this.evictAfterTicks = ticks;
+            return this;
+        }
+
+        /**
+         * Set the maximum amount of cached records, only records of offline players are evicted to stay below it.
+         * 1000 by default, zero or less means unbounded.
+         */
+        public Builder<V> maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public PlayerDataStore<V> build() {
+            validate();
+            Cache<UUID, V> cache = manager.getCacheManager().createLocalCache("player-data:" + name);
+            PlayerDataStore<V> store = new PlayerDataStore<>(this, cache);
+            manager.register(store);
+
+            // Players that are already online (e.g. after a reload) never went through the login events.
+            Bukkit.getOnlinePlayers().forEach(store::handleJoin);
+            return store;
+        }
+
+        private void validate() {
+            Objects.requireNonNull(name, "Name is required");
+            if (source == null) throw new IllegalStateException("Source is required");
+            if (defaultValue == null) throw new IllegalStateException("Default value is required");
+            if (evictAfterTicks < 0) throw new IllegalStateException("Eviction delay cannot be negative");
+        }
+    }
+}
@@ -1,84 +1,199 @@
 package me.levitate.quill.utils.bukkit;
 
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.plugin.Plugin;
 
-import java.util.Arrays;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class ItemHelper {
-    @SuppressWarnings("deprecation")
+    private static final int MAX_CACHED_HEADS = 512;
+    private static final Map<String, ItemStack> HEAD_CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ItemStack> eldest) {
+            return size() > MAX_CACHED_HEADS;
+        }
+    };
+
+    /**
+     * Create a player head with a custom texture.
+     * Heads are built once per texture and the last 512 used textures are cached,
+     * every call returns a copy of the cached head.
+     *
+     * @param base64Value The Base64 encoded texture value
+     * @return A new head ItemStack
+     */
     public static ItemStack createCustomHead(String base64Value) {
         Objects.requireNonNull(base64Value, "Base64 value cannot be null");
+        return getCachedHead(base64Value).clone();
+    }
+
+    /**
+     * Build and cache the heads for the given textures on the Bukkit async scheduler, e.g. with the heads used in menus.
+     *
+     * @param plugin The plugin owning the task
+     * @param base64Values The Base64 encoded texture values
+     * @return Future completed once every head is cached
+     */
+    public static CompletableFuture<Void> prewarmHeads(Plugin plugin, Collection<String> base64Values) {
+        List<String> values = List.copyOf(base64Values);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                values.forEach(ItemHelper::getCachedHead);
+                future.complete(null);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
 
-        UUID id = UUID.nameUUIDFromBytes(base64Value.getBytes());
-        int less = (int) id.getLeastSignificantBits();
-        int most = (int) id.getMostSignificantBits();
+    /**
+     * Clear all cached heads
+     */
+    public static void clearHeadCache() {
+        synchronized (HEAD_CACHE) {
+            HEAD_CACHE.clear();
+        }
+    }
 
-        return Bukkit.getUnsafe().modifyItemStack(
-                new ItemStack(Material.PLAYER_HEAD),
-                "{SkullOwner:{Id:[I;" + (less * most) + "," + (less >> 23) + "," +
-                        (most / less) + "," + (most * 8731) + "],Properties:{textures:[{Value:\"" +
-                        base64Value + "\"}]}}}"
-        );
+    private static ItemStack getCachedHead(String base64Value) {
+        synchronized (HEAD_CACHE) {
+            ItemStack cached = HEAD_CACHE.get(base64Value);
+            if (cached != null) return cached;
+        }
+
+        // Built outside the lock, the profile lookup may block.
+        ItemStack head = buildHead(base64Value);
+        synchronized (HEAD_CACHE) {
+            return HEAD_CACHE.computeIfAbsent(base64Value, key -> head);
+        }
+    }
+
+    private static ItemStack buildHead(String base64Value) {
+        PlayerProfile profile = Bukkit.createProfile(UUID.nameUUIDFromBytes(base64Value.getBytes()));
+        profile.setProperty(new ProfileProperty("textures", base64Value));
+
+        ItemStack head = new ItemStack(Material.PLAYER_HEAD);
+        SkullMeta meta = (SkullMeta) head.getItemMeta();
+        meta.setPlayerProfile(profile);
+        head.setItemMeta(meta);
+        return head;
     }
 
     public static boolean removeItems(Player player, Material material, int amount) {
         Objects.requireNonNull(player, "Player cannot be null");
         Objects.requireNonNull(material, "Material cannot be null");
 
-        if (amount <= 0) {
-            throw new IllegalArgumentException("Amount must be positive");
-        }
+        return removeAll(player, ItemRequirements.create().add(material, amount));
+    }
+
+    public static boolean hasEnoughItems(Player player, Material material, int amount) {
+        Objects.requireNonNull(player, "Player cannot be null");
+        Objects.requireNonNull(material, "Material cannot be null");
 
-        if (!hasEnoughItems(player, material, amount)) {
+        return hasAll(player.getInventory(), ItemRequirements.create().add(material, amount));
+    }
+
+    /**
+     * Check if an inventory contains every requirement, using a single pass over its contents
+     * @param inventory The inventory
+     * @param requirements The requirements
+     * @return true if all requirements are met
+     */
+    public static boolean hasAll(Inventory inventory, ItemRequirements requirements) {
+        Objects.requireNonNull(inventory, "Inventory cannot be null");
+        Objects.requireNonNull(requirements, "Requirements cannot be null");
+
+        return planRemoval(inventory.getContents(), requirements) != null;
+    }
+
+    /**
+     * Remove every requirement from an inventory, either all of them are removed or none are
+     * @param inventory The inventory
+     * @param requirements The requirements
+     * @return true if the items were removed
+     */
+    public static boolean removeAll(Inventory inventory, ItemRequirements requirements) {
+        Objects.requireNonNull(inventory, "Inventory cannot be null");
+        Objects.requireNonNull(requirements, "Requirements cannot be null");
+
+        ItemStack[] contents = inventory.getContents();
+        int[] removals = planRemoval(contents, requirements);
+        if (removals == null) {
             return false;
         }
 
-        int remaining = amount;
-        ItemStack[] contents = player.getInventory().getContents();
+        for (int i = 0; i < removals.length; i++) {
+            if (removals[i] == 0) continue;
 
-        for (int i = 0; i < contents.length && remaining > 0; i++) {
             ItemStack stack = contents[i];
-            if (stack == null || stack.getType() != material) {
-                continue;
+            int left = stack.getAmount() - removals[i];
+            if (left <= 0) {
+                inventory.setItem(i, null);
+            } else {
+                stack.setAmount(left);
             }
+        }
+        return true;
+    }
 
-            int stackAmount = stack.getAmount();
-            int toRemove = Math.min(remaining, stackAmount);
-            remaining -= toRemove;
+    /**
+     * Remove every requirement from a player's inventory, either all of them are removed or none are
+     * @param player The player
+     * @param requirements The requirements
+     * @return true if the items were removed
+     */
+    public static boolean removeAll(Player player, ItemRequirements requirements) {
+        Objects.requireNonNull(player, "Player cannot be null");
 
-            if (stackAmount - toRemove <= 0) {
-                player.getInventory().setItem(i, null);
-            } else {
-                stack.setAmount(stackAmount - toRemove);
-            }
+        if (!removeAll(player.getInventory(), requirements)) {
+            return false;
         }
 
         player.updateInventory();
         return true;
     }
 
-    public static boolean hasEnoughItems(Player player, Material material, int amount) {
-        Objects.requireNonNull(player, "Player cannot be null");
-        Objects.requireNonNull(material, "Material cannot be null");
-
-        if (amount <= 0) {
-            throw new IllegalArgumentException("Amount must be positive");
+    /**
+     * Count the matching items per slot in one pass.
+     * @return The amount to remove per slot, or null if the requirements cannot be met
+     */
+    private static int[] planRemoval(ItemStack[] contents, ItemRequirements requirements) {
+        int[] remaining = new int[requirements.size()];
+        int outstanding = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = requirements.amount(i);
+            outstanding += remaining[i];
         }
 
-        int count = 0;
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType() == material) {
-                count += item.getAmount();
-                if (count >= amount) return true;
+        int[] removals = new int[contents.length];
+        for (int slot = 0; slot < contents.length && outstanding > 0; slot++) {
+            ItemStack stack = contents[slot];
+            if (stack == null || stack.getType().isAir()) continue;
+
+            int available = stack.getAmount();
+            for (int i = 0; i < remaining.length && available > 0; i++) {
+                if (remaining[i] == 0 || !requirements.matcher(i).matches(stack)) continue;
+
+                int taken = Math.min(remaining[i], available);
+                remaining[i] -= taken;
+                available -= taken;
+                outstanding -= taken;
+                removals[slot] += taken;
             }
         }
-        return false;
+
+        return outstanding == 0 ? removals : null;
     }
 
     public static String formatMaterialName(Material material) {
@@ -0,0 +1,46 @@
+package me.levitate.quill.utils.bukkit;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Matches inventory items, used by {@link ItemRequirements}.
+ * Matchers are only called with non-null items.
+ */
+@FunctionalInterface
+public interface ItemMatcher {
+    boolean matches(ItemStack item);
+
+    /**
+     * Match every item of a material
+     */
+    static ItemMatcher material(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        return item -> item.getType() == material;
+    }
+
+    /**
+     * Match items that are similar to the given item (see {@link ItemStack#isSimilar(ItemStack)}), ignoring the amount.
+     * The template's type and meta presence are captured once and checked first,
+     * so the expensive meta comparison only runs for items that could be similar.
+     */
+    static ItemMatcher similar(ItemStack template) {
+        Objects.requireNonNull(template, "Template cannot be null");
+        ItemStack copy = template.clone();
+        Material type = copy.getType();
+        boolean hasMeta = copy.hasItemMeta();
+
+        return item -> item.getType() == type && item.hasItemMeta() == hasMeta && copy.isSimilar(item);
+    }
+
+    /**
+     * Match items using a custom predicate
+     */
+    static ItemMatcher of(Predicate<ItemStack> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return predicate::test;
+    }
+}
@@ -0,0 +1,56 @@
+package me.levitate.quill.utils.bukkit;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A set of items and amounts that are checked or removed together in a single inventory pass,
+ * see {@link ItemHelper#hasAll(org.bukkit.inventory.Inventory, ItemRequirements)}.
+ * <p>
+ * Items are assigned to the first requirement that matches and still needs items,
+ * so add the most specific requirements first when matchers overlap.
+ * </p>
+ */
+public class ItemRequirements {
+    private final List<ItemMatcher> matchers = new ArrayList<>();
+    private final List<Integer> amounts = new ArrayList<>();
+
+    public static ItemRequirements create() {
+        return new ItemRequirements();
+    }
+
+    public ItemRequirements add(Material material, int amount) {
+        return add(ItemMatcher.material(material), amount);
+    }
+
+    public ItemRequirements add(ItemStack similarTo, int amount) {
+        return add(ItemMatcher.similar(similarTo), amount);
+    }
+
+    public ItemRequirements add(ItemMatcher matcher, int amount) {
+        Objects.requireNonNull(matcher, "Matcher cannot be null");
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+
+        matchers.add(matcher);
+        amounts.add(amount);
+        return this;
+    }
+
+    public int size() {
+        return matchers.size();
+    }
+
+    ItemMatcher matcher(int index) {
+        return matchers.get(index);
+    }
+
+    int amount(int index) {
+        return amounts.get(index);
+    }
+}
@@ -0,0 +1,50 @@
+package me.levitate.quill.utils.common;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class FileHelper {
+
+    /**
+     * Replace a file with new content.
+     * The content is written to a temporary file next to the target first and then moved over it,
+     * so readers, backups and file watchers never see a half-written file.
+     *
+     * @param target The file to replace
+     * @param content The new content
+     * @throws IOException if writing or moving fails
+     */
+    public static void writeAtomically(Path target, byte[] content) throws IOException {
+        writeAtomically(target, output -> output.write(content));
+    }
+
+    /**
+     * Replace a file with content written to a stream, see {@link #writeAtomically(Path, byte[])}
+     *
+     * @param target The file to replace
+     * @param writer Writes the new content, the stream is buffered and closed afterwards
+     * @throws IOException if writing or moving fails
+     */
+    public static void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            writer.write(output);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream output) throws IOException;
+    }
+}